@@ -12,6 +12,7 @@ import com.opensymphony.xwork2.inject.Container;
 import com.opensymphony.xwork2.inject.Inject;
 import com.opensymphony.xwork2.interceptor.Interceptor;
 import com.opensymphony.xwork2.util.ClassLoaderUtil;
+import com.opensymphony.xwork2.util.classloader.ReloadingClassLoader;
 import com.opensymphony.xwork2.util.logging.Logger;
 import com.opensymphony.xwork2.util.logging.LoggerFactory;
 import com.opensymphony.xwork2.util.reflection.ReflectionException;
@@ -19,9 +20,17 @@ import com.opensymphony.xwork2.util.reflection.ReflectionExceptionHandler;
 import com.opensymphony.xwork2.util.reflection.ReflectionProvider;
 import com.opensymphony.xwork2.validator.Validator;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 
 /**
@@ -37,9 +46,27 @@ import java.util.Map;
 public class ObjectFactory implements Serializable {
     private static final Logger LOG = LoggerFactory.getLogger(ObjectFactory.class);
 
+    /**
+     * Upper bound of cached result plans and shared results, as wildcard mappings can produce any number of result
+     * configs.
+     */
+    static final int MAX_RESULT_PLANS = 1000;
+
+    /**
+     * Upper bound of class names cached per class loader, as wildcard mappings can produce any number of them.
+     */
+    static final int MAX_CLASS_NAMES = 10000;
+
+    private static final Object CLASS_NOT_FOUND = new Object();
+
     private transient ClassLoader ccl;
     private Container container;
     protected ReflectionProvider reflectionProvider;
+    // created by createCaches(), not final as they are transient
+    private transient ConcurrentMap<ClassLoader, ConcurrentMap<String, Object>> classCache;
+    private transient ConcurrentMap<Class, BeanConstructor> beanConstructors;
+    private transient ConcurrentMap<ResultConfig, ResultPlan> resultPlans;
+    private transient ConcurrentMap<ResultConfig, SharedResult> sharedResults;
 
     @Inject(value="objectFactory.classloader", required=false)
     public void setClassLoader(ClassLoader cl) {
@@ -52,10 +79,38 @@ public class ObjectFactory implements Serializable {
     }
 
     public ObjectFactory() {
+        createCaches();
     }
     
     public ObjectFactory(ReflectionProvider prov) {
         this.reflectionProvider = prov;
+        createCaches();
+    }
+
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        createCaches();
+    }
+
+    /**
+     * Creates the caches up front, so that threads building objects concurrently all share the same ones.
+     */
+    private void createCaches() {
+        classCache = new ConcurrentHashMap<ClassLoader, ConcurrentMap<String, Object>>();
+        beanConstructors = new ConcurrentHashMap<Class, BeanConstructor>();
+        resultPlans = new ConcurrentHashMap<ResultConfig, ResultPlan>();
+        sharedResults = new ConcurrentHashMap<ResultConfig, SharedResult>();
+    }
+
+    /**
+     * Drops the cached classes, constructors, result plans and shared results. Called when the configuration is
+     * reloaded, as this factory may outlive it and would otherwise keep serving objects of the old configuration.
+     */
+    public void clearCaches() {
+        classCache.clear();
+        beanConstructors.clear();
+        resultPlans.clear();
+        sharedResults.clear();
     }
     
     @Inject
@@ -83,12 +138,42 @@ public class ObjectFactory implements Serializable {
     /**
      * Utility method to obtain the class matched to className. Caches look ups so that subsequent
      * lookups will be faster.
+     * <p/>
+     * Classes, and class names that could not be found, are cached per class loader: the configured one or else
+     * the context class loader of the current thread. Nothing is cached for a {@link ReloadingClassLoader}, as it
+     * may load a new class for the same name. The cache is dropped with this factory when the configuration is
+     * reloaded.
      *
      * @param className The fully qualified name of the class to return
      * @return The class itself
      * @throws ClassNotFoundException
      */
     public Class getClassInstance(String className) throws ClassNotFoundException {
+        ClassLoader loader = (ccl != null) ? ccl : Thread.currentThread().getContextClassLoader();
+        if (loader == null || loader instanceof ReloadingClassLoader) {
+            return loadClass(className);
+        }
+
+        ConcurrentMap<String, Object> classes = getClassCache(loader);
+        Object clazz = classes.get(className);
+        if (clazz == null) {
+            try {
+                clazz = loadClass(className);
+            } catch (ClassNotFoundException e) {
+                clazz = CLASS_NOT_FOUND;
+            }
+            if (classes.size() < MAX_CLASS_NAMES) {
+                classes.put(className, clazz);
+            }
+        }
+
+        if (clazz == CLASS_NOT_FOUND) {
+            throw new ClassNotFoundException(className);
+        }
+        return (Class) clazz;
+    }
+
+    private Class loadClass(String className) throws ClassNotFoundException {
         if (ccl != null) {
             return ccl.loadClass(className);
         }
@@ -96,6 +181,18 @@ public class ObjectFactory implements Serializable {
         return ClassLoaderUtil.loadClass(className, this.getClass());
     }
 
+    private ConcurrentMap<String, Object> getClassCache(ClassLoader loader) {
+        ConcurrentMap<String, Object> classes = classCache.get(loader);
+        if (classes == null) {
+            classes = new ConcurrentHashMap<String, Object>();
+            ConcurrentMap<String, Object> previous = classCache.putIfAbsent(loader, classes);
+            if (previous != null) {
+                classes = previous;
+            }
+        }
+        return classes;
+    }
+
     /**
      * Build an instance of the action class to handle a particular request (eg. web request)
      * @param actionName the name the action configuration is set up with in the configuration
@@ -112,11 +209,46 @@ public class ObjectFactory implements Serializable {
     /**
      * Build a generic Java object of the given type.
      *
+     * <p/>
+     * Classes with a constructor annotated with {@link Inject} are created by the {@link Container}, which injects
+     * the constructor parameters. Other classes are created with their no-arg constructor; exceptions it throws
+     * are rethrown as they are. The constructor to use is looked up once per class.
+     *
      * @param clazz the type of Object to build
      * @param extraContext a Map of extra context which uses the same keys as the {@link com.opensymphony.xwork2.ActionContext}
      */
     public Object buildBean(Class clazz, Map<String, Object> extraContext) throws Exception {
-        return clazz.newInstance();
+        return getBeanConstructor(clazz).newInstance(container);
+    }
+
+    /**
+     * Returns the cached constructor of the given class. Classes of a {@link ReloadingClassLoader} are not cached.
+     */
+    private BeanConstructor getBeanConstructor(Class clazz) {
+        if (clazz.getClassLoader() instanceof ReloadingClassLoader) {
+            return new BeanConstructor(clazz);
+        }
+
+        BeanConstructor constructor = beanConstructors.get(clazz);
+        if (constructor == null) {
+            constructor = new BeanConstructor(clazz);
+            if (beanConstructors.size() < MAX_CLASS_NAMES) {
+                beanConstructors.put(clazz, constructor);
+            }
+        }
+        return constructor;
+    }
+
+    /**
+     * Tells whether {@link #buildBean(Class, Map)} has the {@link Container} create, and so inject, instances of
+     * the given class: that is the case for classes with a constructor annotated with {@link Inject}, public or
+     * not.
+     *
+     * @param clazz the type of Object to build
+     * @return true if built instances are already injected, false otherwise
+     */
+    public boolean isInjectedOnConstruction(Class clazz) {
+        return container != null && getBeanConstructor(clazz).injected;
     }
 
     /**
@@ -140,7 +272,7 @@ public class ObjectFactory implements Serializable {
     }
     
     /**
-     * Build a generic Java object of the given type.
+     * Build a generic Java object of the given type. Objects the container created are not injected again.
      *
      * @param className the type of Object to build
      * @param extraContext a Map of extra context which uses the same keys as the {@link com.opensymphony.xwork2.ActionContext}
@@ -148,7 +280,7 @@ public class ObjectFactory implements Serializable {
     public Object buildBean(String className, Map<String, Object> extraContext, boolean injectInternal) throws Exception {
         Class clazz = getClassInstance(className);
         Object obj = buildBean(clazz, extraContext);
-        if (injectInternal) {
+        if (injectInternal && !isInjectedOnConstruction(clazz)) {
             injectInternalBeans(obj);
         }
         return obj;
@@ -204,6 +336,11 @@ public class ObjectFactory implements Serializable {
 
     /**
      * Build a Result using the type in the ResultConfig and set the parameters in the ResultConfig.
+     * <p/>
+     * A {@link ReusableResult} is only built once per ResultConfig, and then returned for every request. Of a
+     * {@link PrototypeResult} too only one is built, and each request gets a copy of it. A shared result is only
+     * returned while its ResultConfig still loads the class it was built from, and results of a
+     * {@link ReloadingClassLoader} are not shared at all.
      *
      * @param resultConfig the ResultConfig found for the action with the result code returned
      * @param extraContext a Map of extra context which uses the same keys as the {@link com.opensymphony.xwork2.ActionContext}
@@ -213,12 +350,23 @@ public class ObjectFactory implements Serializable {
         Result result = null;
 
         if (resultClassName != null) {
+            Class resultClass = getClassInstance(resultClassName);
+            SharedResult sharedResult = sharedResults.get(resultConfig);
+            if (sharedResult != null && sharedResult.resultClass == resultClass) {
+                return reuse(sharedResult.result);
+            }
+
             result = (Result) buildBean(resultClassName, extraContext);
             Map<String, String> params = resultConfig.getParams();
-            if (params != null) {
-                for (Map.Entry<String, String> paramEntry : params.entrySet()) {
+            if (params != null && !params.isEmpty()) {
+                ResultPlan plan = getResultPlan(resultConfig, result.getClass());
+                for (int i = 0; i < plan.names.length; i++) {
                     try {
-                        reflectionProvider.setProperty(paramEntry.getKey(), paramEntry.getValue(), result, extraContext, true);
+                        if (plan.setters[i] != null) {
+                            plan.set(i, result);
+                        } else {
+                            reflectionProvider.setProperty(plan.names[i], plan.values[i], result, extraContext, true);
+                        }
                     } catch (ReflectionException ex) {
                         if (result instanceof ReflectionExceptionHandler) {
                             ((ReflectionExceptionHandler) result).handle(ex);
@@ -226,11 +374,58 @@ public class ObjectFactory implements Serializable {
                     }
                 }
             }
+
+            if (result instanceof ReusableResult || result instanceof PrototypeResult) {
+                result = reuse(share(resultConfig, new SharedResult(resultClass, result)));
+            }
         }
 
         return result;
     }
 
+    /**
+     * Keeps the result for later requests with the same config, unless another thread already did.
+     *
+     * @return the result to share
+     */
+    private Result share(ResultConfig resultConfig, SharedResult sharedResult) {
+        if (sharedResult.resultClass.getClassLoader() instanceof ReloadingClassLoader) {
+            return sharedResult.result;
+        }
+        SharedResult previous = sharedResults.get(resultConfig);
+        if (previous == null) {
+            if (sharedResults.size() < MAX_RESULT_PLANS) {
+                previous = sharedResults.putIfAbsent(resultConfig, sharedResult);
+            }
+        } else if (previous.resultClass != sharedResult.resultClass) {
+            // built from a class that is no longer loaded for this config
+            sharedResults.replace(resultConfig, previous, sharedResult);
+            previous = null;
+        }
+        return (previous != null) ? previous.result : sharedResult.result;
+    }
+
+    private Result reuse(Result sharedResult) {
+        if (sharedResult instanceof PrototypeResult) {
+            return ((PrototypeResult) sharedResult).copy();
+        }
+        return sharedResult;
+    }
+
+    /**
+     * Returns the cached plan for setting the params of the result config on instances of the given class.
+     */
+    private ResultPlan getResultPlan(ResultConfig resultConfig, Class resultClass) {
+        ResultPlan plan = resultPlans.get(resultConfig);
+        if (plan == null || plan.resultClass != resultClass) {
+            plan = new ResultPlan(resultClass, resultConfig.getParams());
+            if (resultPlans.size() < MAX_RESULT_PLANS) {
+                resultPlans.put(resultConfig, plan);
+            }
+        }
+        return plan;
+    }
+
     /**
      * Build a Validator of the given type and set the parameters on it
      *
@@ -245,6 +440,158 @@ public class ObjectFactory implements Serializable {
         return validator;
     }
 
+    /**
+     * Creates instances of a class, either with its no-arg constructor or, if it has a constructor annotated with
+     * {@link Inject}, through the container.
+     */
+    static final class BeanConstructor {
+
+        final Class beanClass;
+        final Constructor constructor;
+        final boolean injected;
+
+        BeanConstructor(Class beanClass) {
+            this.beanClass = beanClass;
+            injected = hasInjectConstructor(beanClass);
+
+            Constructor noArgConstructor = null;
+            if (!beanClass.isInterface() && !Modifier.isAbstract(beanClass.getModifiers())) {
+                try {
+                    noArgConstructor = beanClass.getDeclaredConstructor();
+                } catch (NoSuchMethodException e) {
+                    // only usable through an injected constructor
+                }
+            }
+            if (noArgConstructor != null && Modifier.isPublic(beanClass.getModifiers())
+                    && Modifier.isPublic(noArgConstructor.getModifiers())) {
+                try {
+                    // accessible anyway, this just skips the access check on each call
+                    noArgConstructor.setAccessible(true);
+                } catch (SecurityException e) {
+                    // the access check stays
+                }
+            }
+            constructor = noArgConstructor;
+        }
+
+        static boolean hasInjectConstructor(Class beanClass) {
+            for (Constructor constructor : beanClass.getDeclaredConstructors()) {
+                if (constructor.isAnnotationPresent(Inject.class)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        Object newInstance(Container container) throws Exception {
+            if (injected && container != null) {
+                return container.inject(beanClass);
+            }
+            if (constructor == null) {
+                throw new InstantiationException(beanClass.getName());
+            }
+
+            try {
+                return constructor.newInstance();
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getTargetException();
+                if (cause instanceof Exception) {
+                    throw (Exception) cause;
+                } else if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A result shared between requests, with the class it was built from.
+     */
+    static final class SharedResult {
+
+        final Class resultClass;
+        final Result result;
+
+        SharedResult(Class resultClass, Result result) {
+            this.resultClass = resultClass;
+            this.result = result;
+        }
+    }
+
+    /**
+     * The params of a result config with, for each param, the public String setter of the result class it can be
+     * set with directly. Params with nested names, non-String or overloaded setters have no setter here and are
+     * set through the {@link ReflectionProvider}, so they keep its type conversion.
+     */
+    static final class ResultPlan {
+
+        final Class resultClass;
+        final String[] names;
+        final String[] values;
+        final Method[] setters;
+
+        ResultPlan(Class resultClass, Map<String, String> params) {
+            this.resultClass = resultClass;
+            int size = params.size();
+            names = new String[size];
+            values = new String[size];
+            setters = new Method[size];
+
+            int i = 0;
+            for (Map.Entry<String, String> param : params.entrySet()) {
+                names[i] = param.getKey();
+                values[i] = param.getValue();
+                setters[i] = findStringSetter(resultClass, param.getKey());
+                i++;
+            }
+        }
+
+        void set(int i, Object result) throws ReflectionException {
+            try {
+                setters[i].invoke(result, values[i]);
+            } catch (InvocationTargetException e) {
+                throw new ReflectionException("Caught exception while setting property '" + names[i]
+                        + "' on type '" + resultClass.getName() + "'.", e.getTargetException());
+            } catch (IllegalAccessException e) {
+                throw new ReflectionException(e);
+            }
+        }
+
+        static Method findStringSetter(Class clazz, String property) {
+            if (property == null || property.length() == 0 || !Modifier.isPublic(clazz.getModifiers())) {
+                return null;
+            }
+            if (!Character.isJavaIdentifierStart(property.charAt(0))) {
+                return null;
+            }
+            for (int i = 1; i < property.length(); i++) {
+                if (!Character.isJavaIdentifierPart(property.charAt(i))) {
+                    return null;
+                }
+            }
+
+            String name = "set" + Character.toUpperCase(property.charAt(0)) + property.substring(1);
+            Method found = null;
+            for (Method method : clazz.getMethods()) {
+                if (method.getName().equals(name)) {
+                    if (found != null) {
+                        // overloaded, leave the choice to OGNL
+                        return null;
+                    }
+                    found = method;
+                }
+            }
+
+            if (found == null || Modifier.isStatic(found.getModifiers())
+                    || !Modifier.isPublic(found.getDeclaringClass().getModifiers())) {
+                return null;
+            }
+            Class[] parameterTypes = found.getParameterTypes();
+            return (parameterTypes.length == 1 && parameterTypes[0] == String.class) ? found : null;
+        }
+    }
+
     static class ContinuationsClassLoader extends ClassLoader {
         
     }
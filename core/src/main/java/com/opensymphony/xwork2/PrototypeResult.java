@@ -0,0 +1,25 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+/**
+ * Results that keep per-request state, but can be copied from an already parameterized instance. The
+ * {@link ObjectFactory} builds and parameterizes one prototype per result configuration and gives each request a
+ * {@link #copy()} of it, instead of building and parameterizing a new result.
+ *
+ * @see ReusableResult
+ * @see ObjectFactory#buildResult(com.opensymphony.xwork2.config.entities.ResultConfig, java.util.Map)
+ */
+public interface PrototypeResult extends Result {
+
+    /**
+     * Creates a result for one request. The copy must have the params of this result, and must not share any
+     * state that is changed while the result executes.
+     *
+     * @return a new result
+     */
+    PrototypeResult copy();
+
+}
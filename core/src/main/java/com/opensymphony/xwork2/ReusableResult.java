@@ -0,0 +1,16 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+/**
+ * Marker interface for results that keep no per-request state. The {@link ObjectFactory} builds and parameterizes
+ * one instance per result configuration and hands that same instance to every request, so implementations must be
+ * thread-safe and must not change their own fields in {@link #execute(ActionInvocation)}.
+ *
+ * @see PrototypeResult
+ * @see ObjectFactory#buildResult(com.opensymphony.xwork2.config.entities.ResultConfig, java.util.Map)
+ */
+public interface ReusableResult extends Result {
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+import java.util.*;
+
+/**
+ * A thread-safe {@link ValidationAwareSupport}: every method is synchronized and the errors and messages
+ * are returned as new collections (defensive copy). Use it when errors are reported from several threads,
+ * the plain {@link ValidationAwareSupport} is enough for request-confined objects such as actions.
+ */
+public class SynchronizedValidationAwareSupport extends ValidationAwareSupport {
+
+    @Override
+    public synchronized void setActionErrors(Collection<String> errorMessages) {
+        super.setActionErrors(errorMessages);
+    }
+
+    @Override
+    public synchronized Collection<String> getActionErrors() {
+        return super.getActionErrors();
+    }
+
+    @Override
+    public synchronized void setActionMessages(Collection<String> messages) {
+        super.setActionMessages(messages);
+    }
+
+    @Override
+    public synchronized Collection<String> getActionMessages() {
+        return super.getActionMessages();
+    }
+
+    @Override
+    public synchronized void setFieldErrors(Map<String, List<String>> errorMap) {
+        super.setFieldErrors(errorMap);
+    }
+
+    @Override
+    public synchronized Map<String, List<String>> getFieldErrors() {
+        return super.getFieldErrors();
+    }
+
+    @Override
+    public synchronized void addActionError(String anErrorMessage) {
+        super.addActionError(anErrorMessage);
+    }
+
+    @Override
+    public synchronized void addActionMessage(String aMessage) {
+        super.addActionMessage(aMessage);
+    }
+
+    @Override
+    public synchronized void addFieldError(String fieldName, String errorMessage) {
+        super.addFieldError(fieldName, errorMessage);
+    }
+
+    @Override
+    public synchronized boolean hasActionErrors() {
+        return super.hasActionErrors();
+    }
+
+    @Override
+    public synchronized boolean hasActionMessages() {
+        return super.hasActionMessages();
+    }
+
+    @Override
+    public synchronized boolean hasErrors() {
+        return super.hasErrors();
+    }
+
+    @Override
+    public synchronized boolean hasFieldErrors() {
+        return super.hasFieldErrors();
+    }
+
+    @Override
+    public synchronized void clearFieldErrors() {
+        super.clearFieldErrors();
+    }
+
+    @Override
+    public synchronized void clearActionErrors() {
+        super.clearActionErrors();
+    }
+
+    @Override
+    public synchronized void clearMessages() {
+        super.clearMessages();
+    }
+
+    @Override
+    public synchronized void clearErrors() {
+        super.clearErrors();
+    }
+
+    @Override
+    public synchronized void clearErrorsAndMessages() {
+        super.clearErrorsAndMessages();
+    }
+}
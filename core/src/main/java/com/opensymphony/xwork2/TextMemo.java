@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Request scoped memo of the texts resolved by {@link TextProviderSupport}. The memo is kept in the current
+ * {@link ActionContext}, so it lives as long as the request does.
+ * <p/>
+ * Texts are keyed by their source (class, bundle or provider), key, default value, locale and arguments.
+ * Arguments that are all strings are compared by value, any other arguments by identity.
+ *
+ * @see TextProviderSupport#MEMO_CONFIG_KEY
+ */
+final class TextMemo {
+
+    static final String CONTEXT_KEY = TextMemo.class.getName();
+
+    private static final String NULL = new String("null");
+
+    private TextMemo() {
+    }
+
+    /**
+     * @return the memo of the current request, or <tt>null</tt> if there is no action context.
+     */
+    @SuppressWarnings("unchecked")
+    static Map<Key, String> current() {
+        ActionContext context = ActionContext.getContext();
+        if (context == null) {
+            return null;
+        }
+
+        Map<Key, String> memo = (Map<Key, String>) context.get(CONTEXT_KEY);
+        if (memo == null) {
+            // a concurrent map, as the context may be shared with validation worker threads
+            memo = new ConcurrentHashMap<Key, String>();
+            context.put(CONTEXT_KEY, memo);
+        }
+        return memo;
+    }
+
+    /**
+     * Memoizes the text, which may be <tt>null</tt>.
+     *
+     * @return the text
+     */
+    static String put(Map<Key, String> memo, Key key, String text) {
+        memo.put(key, text == null ? NULL : text);
+        return text;
+    }
+
+    /**
+     * @return <tt>true</tt> if the message has a <tt>${...}</tt> expression, whose value may change during the
+     *         request
+     */
+    static boolean hasExpression(String message) {
+        return (message != null) && (message.indexOf("${") != -1);
+    }
+
+    /**
+     * @param memoized a value taken from the memo
+     * @return the memoized text
+     */
+    static String unwrap(String memoized) {
+        return memoized == NULL ? null : memoized;
+    }
+
+    static Key key(Object source, String key, String defaultValue, Locale locale, Object args) {
+        return new Key(source, key, defaultValue, locale, argsKey(args));
+    }
+
+    private static Object argsKey(Object args) {
+        Object[] array;
+        if (args == null) {
+            return null;
+        } else if (args instanceof Object[]) {
+            array = ((Object[]) args).clone();
+        } else if (args instanceof List) {
+            array = ((List) args).toArray();
+        } else {
+            return new Identity(args);
+        }
+
+        if (array.length == 0) {
+            return null;
+        }
+        for (Object arg : array) {
+            if ((arg != null) && !(arg instanceof String)) {
+                return new Identity(args);
+            }
+        }
+        return Arrays.asList(array);
+    }
+
+    static final class Key {
+        private final Object source;
+        private final String key;
+        private final String defaultValue;
+        private final Locale locale;
+        private final Object args;
+        private final int hash;
+
+        Key(Object source, String key, String defaultValue, Locale locale, Object args) {
+            this.source = source;
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.locale = locale;
+            this.args = args;
+
+            int result = System.identityHashCode(source);
+            result = 29 * result + (key != null ? key.hashCode() : 0);
+            result = 29 * result + (defaultValue != null ? defaultValue.hashCode() : 0);
+            result = 29 * result + (locale != null ? locale.hashCode() : 0);
+            result = 29 * result + (args != null ? args.hashCode() : 0);
+            this.hash = result;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key)) return false;
+
+            final Key other = (Key) o;
+
+            return (source == other.source)
+                    && (key != null ? key.equals(other.key) : other.key == null)
+                    && (defaultValue != null ? defaultValue.equals(other.defaultValue) : other.defaultValue == null)
+                    && (locale != null ? locale.equals(other.locale) : other.locale == null)
+                    && (args != null ? args.equals(other.args) : other.args == null);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Identity {
+        private final Object object;
+
+        Identity(Object object) {
+            this.object = object;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof Identity) && (((Identity) o).object == object);
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(object);
+        }
+    }
+}
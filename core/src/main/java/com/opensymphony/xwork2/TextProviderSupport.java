@@ -4,6 +4,7 @@
  */
 package com.opensymphony.xwork2;
 
+import com.opensymphony.xwork2.inject.Inject;
 import com.opensymphony.xwork2.util.LocalizedTextUtil;
 import com.opensymphony.xwork2.util.ValueStack;
 
@@ -21,6 +22,12 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
     private Class clazz;
     private LocaleProvider localeProvider;
     private ResourceBundle bundle;
+    private boolean memo;
+
+    /**
+     * The constant enabling the memo of texts, see {@link #setMemo(String)}.
+     */
+    public static final String MEMO_CONFIG_KEY = "xwork.i18n.memo";
 
     /**
      * Default constructor
@@ -72,6 +79,19 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
         this.localeProvider = localeProvider;
     }
 
+    /**
+     * Should texts be memoized per request. When enabled, texts resolved through the <tt>getText</tt> methods that
+     * use the value stack of the current {@link ActionContext} are remembered in that context, so asking for the
+     * same text again in the same request is a single hash lookup. Messages with <tt>${...}</tt> expressions are
+     * not memoized, as their value may change during the request.
+     *
+     * @param memo <tt>true</tt> to memoize texts
+     */
+    @Inject(value = MEMO_CONFIG_KEY, required = false)
+    public void setMemo(String memo) {
+        this.memo = "true".equalsIgnoreCase(memo);
+    }
+
 
     /**
      * Checks if a key is available in the resource bundles associated with this action.
@@ -82,12 +102,7 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
      * class.
      */
     public boolean hasKey(String key) {
-    	String message;
-    	if (clazz != null) {
-            message =  LocalizedTextUtil.findText(clazz, key, getLocale(), null, new Object[0] );
-        } else {
-            message = LocalizedTextUtil.findText(bundle, key, getLocale(), null, new Object[0]);
-        }
+    	String message = findText(key, null, new Object[0]);
     	return message != null;
     }
 
@@ -187,11 +202,7 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
      */
     public String getText(String key, String defaultValue, List<Object> args) {
         Object[] argsArray = ((args != null && !args.equals(Collections.emptyList())) ? args.toArray() : null);
-        if (clazz != null) {
-            return LocalizedTextUtil.findText(clazz, key, getLocale(), defaultValue, argsArray);
-        } else {
-            return LocalizedTextUtil.findText(bundle, key, getLocale(), defaultValue, argsArray);
-        }
+        return findText(key, defaultValue, argsArray);
     }
 
     /**
@@ -208,11 +219,7 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
      * @return value of named text
      */
     public String getText(String key, String defaultValue, String[] args) {
-        if (clazz != null) {
-            return LocalizedTextUtil.findText(clazz, key, getLocale(), defaultValue, args);
-        } else {
-            return LocalizedTextUtil.findText(bundle, key, getLocale(), defaultValue, args);
-        }
+        return findText(key, defaultValue, args);
     }
 
     /**
@@ -305,6 +312,65 @@ public class TextProviderSupport implements ResourceBundleTextProvider {
         return bundle;
     }
 
+    /**
+     * Finds the text for the current locale, consulting the request memo first if it is enabled.
+     */
+    private String findText(String key, String defaultValue, Object[] args) {
+        Locale locale = getLocale();
+        Map<TextMemo.Key, String> memo = this.memo ? TextMemo.current() : null;
+        if (memo == null) {
+            return findText(key, locale, defaultValue, args);
+        }
+
+        TextMemo.Key memoKey = TextMemo.key((clazz != null) ? clazz : bundle, key, defaultValue, locale, args);
+        String text = memo.get(memoKey);
+        if (text == null) {
+            text = findText(key, locale, defaultValue, args);
+            if (isMemoizable(key, locale, defaultValue, text)) {
+                TextMemo.put(memo, memoKey, text);
+            }
+            return text;
+        }
+        return TextMemo.unwrap(text);
+    }
+
+    /**
+     * Tells whether the text can be memoized: its message, as found in the bundles, has no <tt>${...}</tt>
+     * expression. A text found elsewhere, e.g. in the bundles of the model, is not memoized.
+     */
+    private boolean isMemoizable(String key, Locale locale, String defaultValue, String text) {
+        String message;
+        if (clazz != null) {
+            message = LocalizedTextUtil.findTexts(clazz, Collections.singleton(key), locale).get(key);
+        } else {
+            message = getString(bundle, key);
+            if (message == null) {
+                message = LocalizedTextUtil.findDefaultText(key, locale);
+            }
+        }
+
+        if (message != null) {
+            return !TextMemo.hasExpression(message);
+        }
+        return ((text == null) || text.equals(defaultValue)) && !TextMemo.hasExpression(defaultValue);
+    }
+
+    private static String getString(ResourceBundle bundle, String key) {
+        try {
+            return bundle.getString(key);
+        } catch (MissingResourceException e) {
+            return null;
+        }
+    }
+
+    private String findText(String key, Locale locale, String defaultValue, Object[] args) {
+        if (clazz != null) {
+            return LocalizedTextUtil.findText(clazz, key, locale, defaultValue, args);
+        } else {
+            return LocalizedTextUtil.findText(bundle, key, locale, defaultValue, args);
+        }
+    }
+
     /**
      * Get's the locale from the localeProvider.
      *
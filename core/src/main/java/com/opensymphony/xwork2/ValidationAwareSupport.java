@@ -8,8 +8,10 @@ import java.io.Serializable;
 import java.util.*;
 
 /**
- * Provides a default implementation of ValidationAware. Returns new collections for
- * errors and messages (defensive copy).
+ * Provides a default implementation of ValidationAware. Returns new collections for errors and messages
+ * (defensive copy) and copies the collections passed to the setters. It does no locking, so an instance must
+ * be confined to a single thread (e.g. a request), which is how actions are used. Use
+ * {@link SynchronizedValidationAwareSupport} when errors are shared between threads.
  *
  * @author Jason Carreira
  * @author tm_jee
@@ -22,39 +24,48 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
     private Map<String, List<String>> fieldErrors;
 
 
-    public synchronized void setActionErrors(Collection<String> errorMessages) {
-        this.actionErrors = errorMessages;
+    public void setActionErrors(Collection<String> errorMessages) {
+        this.actionErrors = (errorMessages == null) ? null : new ArrayList<String>(errorMessages);
     }
 
-    public synchronized Collection<String> getActionErrors() {
-        return new ArrayList<String>(internalGetActionErrors());
+    public Collection<String> getActionErrors() {
+        if (actionErrors == null) {
+            return new ArrayList<String>();
+        }
+        return new ArrayList<String>(actionErrors);
     }
 
-    public synchronized void setActionMessages(Collection<String> messages) {
-        this.actionMessages = messages;
+    public void setActionMessages(Collection<String> messages) {
+        this.actionMessages = (messages == null) ? null : new ArrayList<String>(messages);
     }
 
-    public synchronized Collection<String> getActionMessages() {
-        return new ArrayList<String>(internalGetActionMessages());
+    public Collection<String> getActionMessages() {
+        if (actionMessages == null) {
+            return new ArrayList<String>();
+        }
+        return new ArrayList<String>(actionMessages);
     }
 
-    public synchronized void setFieldErrors(Map<String, List<String>> errorMap) {
-        this.fieldErrors = errorMap;
+    public void setFieldErrors(Map<String, List<String>> errorMap) {
+        this.fieldErrors = (errorMap == null) ? null : new LinkedHashMap<String, List<String>>(errorMap);
     }
 
-    public synchronized Map<String, List<String>> getFieldErrors() {
-        return new LinkedHashMap<String, List<String>>(internalGetFieldErrors());
+    public Map<String, List<String>> getFieldErrors() {
+        if (fieldErrors == null) {
+            return new LinkedHashMap<String, List<String>>();
+        }
+        return new LinkedHashMap<String, List<String>>(fieldErrors);
     }
 
-    public synchronized void addActionError(String anErrorMessage) {
+    public void addActionError(String anErrorMessage) {
         internalGetActionErrors().add(anErrorMessage);
     }
 
-    public synchronized void addActionMessage(String aMessage) {
+    public void addActionMessage(String aMessage) {
         internalGetActionMessages().add(aMessage);
     }
 
-    public synchronized void addFieldError(String fieldName, String errorMessage) {
+    public void addFieldError(String fieldName, String errorMessage) {
         final Map<String, List<String>> errors = internalGetFieldErrors();
         List<String> thisFieldErrors = errors.get(fieldName);
 
@@ -66,19 +77,19 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
         thisFieldErrors.add(errorMessage);
     }
 
-    public synchronized boolean hasActionErrors() {
+    public boolean hasActionErrors() {
         return (actionErrors != null) && !actionErrors.isEmpty();
     }
 
-    public synchronized boolean hasActionMessages() {
+    public boolean hasActionMessages() {
         return (actionMessages != null) && !actionMessages.isEmpty();
     }
 
-    public synchronized boolean hasErrors() {
+    public boolean hasErrors() {
         return (hasActionErrors() || hasFieldErrors());
     }
 
-    public synchronized boolean hasFieldErrors() {
+    public boolean hasFieldErrors() {
         return (fieldErrors != null) && !fieldErrors.isEmpty();
     }
 
@@ -111,8 +122,10 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
      * <p/>
      * Will clear the map that contains field errors.
      */
-    public synchronized void clearFieldErrors() {
-        internalGetFieldErrors().clear();
+    public void clearFieldErrors() {
+        if (fieldErrors != null) {
+            fieldErrors.clear();
+        }
     }
 
     /**
@@ -120,8 +133,10 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
      * <p/>
      * Will clear the list that contains action errors.
      */
-    public synchronized void clearActionErrors() {
-        internalGetActionErrors().clear();
+    public void clearActionErrors() {
+        if (actionErrors != null) {
+            actionErrors.clear();
+        }
     }
 
     /**
@@ -129,8 +144,10 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
      * <p/>
      * Will clear the list that contains action messages.
      */
-    public synchronized void clearMessages() {
-        internalGetActionMessages().clear();
+    public void clearMessages() {
+        if (actionMessages != null) {
+            actionMessages.clear();
+        }
     }
 
     /**
@@ -139,9 +156,9 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
      * Will clear the map and list that contain
      * field errors and action errors.
      */
-    public synchronized void clearErrors() {
-        internalGetFieldErrors().clear();
-        internalGetActionErrors().clear();
+    public void clearErrors() {
+        clearFieldErrors();
+        clearActionErrors();
     }
 
     /**
@@ -150,9 +167,9 @@ public class ValidationAwareSupport implements ValidationAware, Serializable {
      * Will clear the maps/lists that contain
      * field errors, action errors and action messages.
      */
-    public synchronized void clearErrorsAndMessages() {
-        internalGetFieldErrors().clear();
-        internalGetActionErrors().clear();
-        internalGetActionMessages().clear();
+    public void clearErrorsAndMessages() {
+        clearFieldErrors();
+        clearActionErrors();
+        clearMessages();
     }
 }
@@ -43,6 +43,12 @@ public class DefaultConfiguration implements Configuration {
 
     protected static final Logger LOG = LoggerFactory.getLogger(DefaultConfiguration.class);
 
+    /**
+     * Constant that, when <tt>true</tt>, makes the configuration look up the injection points of all configured
+     * action and result classes when it is loaded, instead of on the first request that uses them.
+     */
+    public static final String PREPARE_INJECTIONS_CONFIG_KEY = "xwork.configuration.prepareInjections";
+
 
     // Programmatic Action Configurations
     protected Map<String, PackageConfig> packageContexts = new LinkedHashMap<String, PackageConfig>();
@@ -159,6 +165,10 @@ public class DefaultConfiguration implements Configuration {
     public synchronized List<PackageProvider> reloadContainer(List<ContainerProvider> providers) throws ConfigurationException {
         packageContexts.clear();
         loadedFileNames.clear();
+        if (objectFactory != null) {
+            // the factory may still be in use, don't let it serve objects of the old configuration
+            objectFactory.clearCaches();
+        }
         List<PackageProvider> packageProviders = new ArrayList<PackageProvider>();
 
         ContainerProperties props = new ContainerProperties();
@@ -207,6 +217,10 @@ public class DefaultConfiguration implements Configuration {
             }
 
             rebuildRuntimeConfiguration();
+
+            if ("true".equals(container.getInstance(String.class, PREPARE_INJECTIONS_CONFIG_KEY))) {
+                prepareInjections();
+            }
         } finally {
             if (oldContext == null) {
                 ActionContext.setContext(null);
@@ -215,6 +229,48 @@ public class DefaultConfiguration implements Configuration {
         return packageProviders;
     }
 
+    /**
+     * Loads the configured action and result classes and has the container look up their injection points, so the
+     * first request of each action doesn't pay for it. Interceptors are already built and injected at this point.
+     * Classes that can't be loaded, such as wildcard class names, are skipped.
+     */
+    protected void prepareInjections() {
+        long start = System.currentTimeMillis();
+        Set<String> classNames = new LinkedHashSet<String>();
+        for (Map<String, ActionConfig> actionConfigs : runtimeConfiguration.getActionConfigs().values()) {
+            for (ActionConfig actionConfig : actionConfigs.values()) {
+                classNames.add(actionConfig.getClassName());
+                for (ResultConfig resultConfig : actionConfig.getResults().values()) {
+                    classNames.add(resultConfig.getClassName());
+                }
+            }
+        }
+
+        List<Class<?>> classes = new ArrayList<Class<?>>();
+        for (String className : classNames) {
+            if (className == null || className.indexOf('{') != -1) {
+                continue;
+            }
+            try {
+                classes.add(objectFactory.getClassInstance(className));
+            } catch (ClassNotFoundException e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Not preparing injection of unknown class " + className);
+                }
+            } catch (LinkageError e) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Not preparing injection of class " + className, e);
+                }
+            }
+        }
+        container.prepare(classes.toArray(new Class<?>[classes.size()]));
+
+        if (LOG.isInfoEnabled()) {
+            LOG.info("Prepared injection of " + classes.size() + " classes in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        }
+    }
+
     protected ActionContext setContext(Container cont) {
         ActionContext context = ActionContext.getContext();
         if (context == null) {
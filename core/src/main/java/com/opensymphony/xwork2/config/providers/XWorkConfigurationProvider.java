@@ -115,6 +115,7 @@ public class XWorkConfigurationProvider implements ConfigurationProvider {
         props.setProperty("devMode", Boolean.FALSE.toString());
         props.setProperty("logMissingProperties", Boolean.FALSE.toString());
         props.setProperty("enableOGNLExpressionCache", Boolean.TRUE.toString());
+        props.setProperty(TextProviderSupport.MEMO_CONFIG_KEY, Boolean.FALSE.toString());
     }
 
 }
@@ -400,7 +400,9 @@ public class XmlConfigurationProvider implements ConfigurationProvider {
                 if (!Modifier.isPublic(clazz.getModifiers())) {
                     throw new ConfigurationException("Action class [" + className + "] is not public", loc);
                 }
-                clazz.getConstructor(new Class[]{});
+                if (!objectFactory.isInjectedOnConstruction(clazz)) {
+                    clazz.getConstructor(new Class[]{});
+                }
             }
         } catch (ClassNotFoundException e) {
             if (LOG.isDebugEnabled()) {
@@ -0,0 +1,307 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+
+package com.opensymphony.xwork2.inject;
+
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Generates {@link ConstructorAccessor}s, {@link MethodAccessor}s and
+ * {@link FieldAccessor}s that call injectable constructors, methods and
+ * fields directly, so that injecting an object costs plain method calls
+ * instead of reflective ones.
+ *
+ * <p>Only public members of public classes, with public parameter types, can
+ * be called from a generated class. For anything else, or if the accessor
+ * cannot be generated (asm missing, class loaders not allowed by the security
+ * manager), the factory methods return {@code null} and the injectors keep
+ * using reflection.
+ *
+ * <p>Each container has its own generator, and the generated classes are
+ * defined in class loaders of that generator, so they are unloaded together
+ * with the container instead of piling up on every configuration reload.
+ */
+final class AccessorGenerator {
+
+  private static final Logger logger =
+      Logger.getLogger(AccessorGenerator.class.getName());
+
+  private static final Class<?>[] ACCESSOR_TYPES = {
+      ConstructorAccessor.class, MethodAccessor.class, FieldAccessor.class };
+
+  private static final AtomicInteger counter = new AtomicInteger();
+
+  /**
+   * Accessor class loaders by the class loader of the injected classes.
+   */
+  private final Map<ClassLoader, AccessorLoader> loaders =
+      new HashMap<ClassLoader, AccessorLoader>();
+
+  ConstructorAccessor forConstructor(Constructor<?> constructor) {
+    Class<?> type = constructor.getDeclaringClass();
+    if (Modifier.isAbstract(type.getModifiers())
+        || !isCallable(constructor, constructor.getParameterTypes())) {
+      return null;
+    }
+    return (ConstructorAccessor) newAccessor(constructor,
+        ConstructorAccessor.class);
+  }
+
+  MethodAccessor forMethod(Method method) {
+    if (!isCallable(method, method.getParameterTypes())) {
+      return null;
+    }
+    return (MethodAccessor) newAccessor(method, MethodAccessor.class);
+  }
+
+  FieldAccessor forField(Field field) {
+    if (Modifier.isFinal(field.getModifiers())
+        || !isCallable(field, new Class[] { field.getType() })) {
+      return null;
+    }
+    return (FieldAccessor) newAccessor(field, FieldAccessor.class);
+  }
+
+  private static boolean isCallable(Member member, Class<?>[] types) {
+    Class<?> owner = member.getDeclaringClass();
+    if (owner.isInterface() || !Modifier.isPublic(member.getModifiers())
+        || !isPublic(owner)) {
+      return false;
+    }
+    for (Class<?> type : types) {
+      if (!isPublic(type)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static boolean isPublic(Class<?> type) {
+    while (type.isArray()) {
+      type = type.getComponentType();
+    }
+    for (Class<?> c = type; c != null; c = c.getDeclaringClass()) {
+      if (!c.isPrimitive() && !Modifier.isPublic(c.getModifiers())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private Object newAccessor(Member member, Class<?> accessorType) {
+    try {
+      String name = accessorType.getName() + "$$" + counter.incrementAndGet();
+      byte[] bytes = Writer.write(name.replace('.', '/'), member, accessorType);
+      Class<?> type = getLoader(member.getDeclaringClass().getClassLoader())
+          .define(name, bytes);
+      return type.newInstance();
+    } catch (LinkageError e) {
+      logFallback(member, e);
+      return null;
+    } catch (Exception e) {
+      logFallback(member, e);
+      return null;
+    }
+  }
+
+  private static void logFallback(Member member, Throwable t) {
+    if (logger.isLoggable(Level.FINE)) {
+      logger.log(Level.FINE, "Could not generate an accessor for " + member
+          + ", using reflection.", t);
+    }
+  }
+
+  private AccessorLoader getLoader(ClassLoader parent) {
+    synchronized (loaders) {
+      AccessorLoader loader = loaders.get(parent);
+      if (loader == null) {
+        loader = new AccessorLoader(parent);
+        loaders.put(parent, loader);
+      }
+      return loader;
+    }
+  }
+
+  /**
+   * Loads the generated classes. Sees the classes of its parent, the loader of
+   * the injected class, and the accessor types.
+   */
+  static class AccessorLoader extends ClassLoader {
+
+    AccessorLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve)
+        throws ClassNotFoundException {
+      for (Class<?> accessorType : ACCESSOR_TYPES) {
+        if (accessorType.getName().equals(name)) {
+          return accessorType;
+        }
+      }
+      return super.loadClass(name, resolve);
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+  /**
+   * Writes the accessor classes. Kept apart so a missing asm only fails here.
+   */
+  static class Writer implements Opcodes {
+
+    private static final String ARGS = "[Ljava/lang/Object;";
+
+    static byte[] write(String name, Member member, Class<?> accessorType) {
+      String superName = Type.getInternalName(accessorType);
+      ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+      cw.visit(V1_5, ACC_PUBLIC | ACC_FINAL | ACC_SUPER, name, null,
+          superName, null);
+
+      MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V", null,
+          null);
+      mv.visitCode();
+      mv.visitVarInsn(ALOAD, 0);
+      mv.visitMethodInsn(INVOKESPECIAL, superName, "<init>", "()V");
+      mv.visitInsn(RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+
+      if (member instanceof Constructor) {
+        writeNewInstance(cw, (Constructor<?>) member);
+      } else if (member instanceof Method) {
+        writeInvoke(cw, (Method) member);
+      } else {
+        writeSet(cw, (Field) member);
+      }
+
+      cw.visitEnd();
+      return cw.toByteArray();
+    }
+
+    static void writeNewInstance(ClassWriter cw, Constructor<?> constructor) {
+      String owner = Type.getInternalName(constructor.getDeclaringClass());
+      MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "newInstance",
+          "(" + ARGS + ")Ljava/lang/Object;", null, null);
+      mv.visitCode();
+      mv.visitTypeInsn(NEW, owner);
+      mv.visitInsn(DUP);
+      loadArguments(mv, 1, constructor.getParameterTypes());
+      mv.visitMethodInsn(INVOKESPECIAL, owner, "<init>",
+          Type.getConstructorDescriptor(constructor));
+      mv.visitInsn(ARETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    static void writeInvoke(ClassWriter cw, Method method) {
+      String owner = Type.getInternalName(method.getDeclaringClass());
+      boolean isStatic = Modifier.isStatic(method.getModifiers());
+      MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "invoke",
+          "(Ljava/lang/Object;" + ARGS + ")V", null, null);
+      mv.visitCode();
+      if (!isStatic) {
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, owner);
+      }
+      loadArguments(mv, 2, method.getParameterTypes());
+      mv.visitMethodInsn(isStatic ? INVOKESTATIC : INVOKEVIRTUAL, owner,
+          method.getName(), Type.getMethodDescriptor(method));
+      Class<?> returnType = method.getReturnType();
+      if (returnType == long.class || returnType == double.class) {
+        mv.visitInsn(POP2);
+      } else if (returnType != void.class) {
+        mv.visitInsn(POP);
+      }
+      mv.visitInsn(RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    static void writeSet(ClassWriter cw, Field field) {
+      String owner = Type.getInternalName(field.getDeclaringClass());
+      boolean isStatic = Modifier.isStatic(field.getModifiers());
+      MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "set",
+          "(Ljava/lang/Object;Ljava/lang/Object;)V", null, null);
+      mv.visitCode();
+      if (!isStatic) {
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitTypeInsn(CHECKCAST, owner);
+      }
+      mv.visitVarInsn(ALOAD, 2);
+      convert(mv, field.getType());
+      mv.visitFieldInsn(isStatic ? PUTSTATIC : PUTFIELD, owner,
+          field.getName(), Type.getDescriptor(field.getType()));
+      mv.visitInsn(RETURN);
+      mv.visitMaxs(0, 0);
+      mv.visitEnd();
+    }
+
+    /**
+     * Pushes the elements of the arguments array in the given local variable,
+     * converted to the parameter types.
+     */
+    static void loadArguments(MethodVisitor mv, int args, Class<?>[] types) {
+      for (int i = 0; i < types.length; i++) {
+        mv.visitVarInsn(ALOAD, args);
+        if (i <= 5) {
+          mv.visitInsn(ICONST_0 + i);
+        } else {
+          mv.visitIntInsn(i < 128 ? BIPUSH : SIPUSH, i);
+        }
+        mv.visitInsn(AALOAD);
+        convert(mv, types[i]);
+      }
+    }
+
+    /**
+     * Casts or unboxes the object on top of the stack to the given type.
+     */
+    static void convert(MethodVisitor mv, Class<?> type) {
+      if (type == Object.class) {
+        return;
+      }
+      if (!type.isPrimitive()) {
+        mv.visitTypeInsn(CHECKCAST, Type.getInternalName(type));
+        return;
+      }
+
+      Class<?> wrapper = wrapperOf(type);
+      String internalName = Type.getInternalName(wrapper);
+      mv.visitTypeInsn(CHECKCAST, internalName);
+      mv.visitMethodInsn(INVOKEVIRTUAL, internalName, type.getName() + "Value",
+          "()" + Type.getDescriptor(type));
+    }
+
+    static Class<?> wrapperOf(Class<?> type) {
+      if (type == int.class) return Integer.class;
+      if (type == long.class) return Long.class;
+      if (type == boolean.class) return Boolean.class;
+      if (type == double.class) return Double.class;
+      if (type == float.class) return Float.class;
+      if (type == char.class) return Character.class;
+      if (type == short.class) return Short.class;
+      if (type == byte.class) return Byte.class;
+      throw new IllegalArgumentException(type.getName());
+    }
+  }
+}
@@ -0,0 +1,20 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+
+package com.opensymphony.xwork2.inject;
+
+/**
+ * A factory that can hand out its instance without an {@link InternalContext}
+ * once the instance exists, such as a created singleton or a constant. Lets
+ * the container answer those lookups without setting up a context.
+ */
+interface CachedFactory<T> extends InternalFactory<T> {
+
+  /**
+   * @return the instance, or {@code null} if it still has to be created in a
+   *  context
+   */
+  T getCachedInstance();
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+
+package com.opensymphony.xwork2.inject;
+
+/**
+ * Calls a constructor directly. Subclasses are generated at runtime by
+ * {@link AccessorGenerator}; this class is only public because the generated
+ * classes live in the class loader of the injected class.
+ *
+ * <p>Not part of the container API.
+ */
+public abstract class ConstructorAccessor {
+
+  protected ConstructorAccessor() {
+  }
+
+  /**
+   * Calls the constructor.
+   *
+   * @param args the constructor arguments, {@code null} if there are none
+   * @return the new instance
+   */
+  public abstract Object newInstance(Object[] args) throws Exception;
+}
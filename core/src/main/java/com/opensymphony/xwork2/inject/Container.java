@@ -101,6 +101,15 @@ public interface Container extends Serializable {
    */
   Set<String> getInstanceNames(Class<?> type);
 
+  /**
+   * Looks up the injectable fields and methods of the given classes now,
+   * instead of the first time an instance of them is injected. Classes with
+   * missing dependencies are skipped; they fail when they are injected.
+   *
+   * @param classes the classes whose instances will be injected
+   */
+  void prepare(Class<?>... classes);
+
   /**
    * Sets the scope strategy for the current thread.
    */
@@ -418,7 +418,11 @@ public final class ContainerBuilder {
    */
   private <T> ContainerBuilder constant(final Class<T> type, final String name,
       final T value) {
-    InternalFactory<T> factory = new InternalFactory<T>() {
+    InternalFactory<T> factory = new CachedFactory<T>() {
+      public T getCachedInstance() {
+        return value;
+      }
+
       public T create(InternalContext ignored) {
         return value;
       }
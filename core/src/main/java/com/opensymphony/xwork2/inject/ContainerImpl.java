@@ -36,6 +36,12 @@ class ContainerImpl implements Container {
   final Map<Key<?>, InternalFactory<?>> factories;
   final Map<Class<?>,Set<String>> factoryNamesByType;
 
+  /**
+   * Generates the accessors of this container's injectors. Not shared between
+   * containers, so the generated classes can be unloaded with the container.
+   */
+  final AccessorGenerator accessorGenerator = new AccessorGenerator();
+
   ContainerImpl(Map<Key<?>, InternalFactory<?>> factories) {
     this.factories = factories;
     Map<Class<?>,Set<String>> map = new HashMap<Class<?>,Set<String>>();
@@ -161,6 +167,7 @@ class ContainerImpl implements Container {
   static class FieldInjector implements Injector {
 
     final Field field;
+    final FieldAccessor accessor;
     final InternalFactory<?> factory;
     final ExternalContext<?> externalContext;
 
@@ -177,6 +184,7 @@ class ContainerImpl implements Container {
                         + field.getDeclaringClass().getName() + "(" + field.getName() + ")", e);
             }
         }
+      this.accessor = container.accessorGenerator.forField(field);
 
       Key<?> key = Key.newInstance(field.getType(), name);
       factory = container.getFactory(key);
@@ -192,7 +200,11 @@ class ContainerImpl implements Container {
       ExternalContext<?> previous = context.getExternalContext();
       context.setExternalContext(externalContext);
       try {
-        field.set(o, factory.create(context));
+        if (accessor != null) {
+          accessor.set(o, factory.create(context));
+        } else {
+          field.set(o, factory.create(context));
+        }
       } catch (IllegalAccessException e) {
         throw new AssertionError(e);
       } finally {
@@ -263,6 +275,7 @@ class ContainerImpl implements Container {
   static class MethodInjector implements Injector {
 
     final Method method;
+    final MethodAccessor accessor;
     final ParameterInjector<?>[] parameterInjectors;
 
     public MethodInjector(ContainerImpl container, Method method, String name)
@@ -278,6 +291,7 @@ class ContainerImpl implements Container {
                         + name + "(" + method.getName() + ")", e);
             }
         }
+      this.accessor = container.accessorGenerator.forMethod(method);
 
       Class<?>[] parameterTypes = method.getParameterTypes();
       if (parameterTypes.length == 0) {
@@ -290,7 +304,18 @@ class ContainerImpl implements Container {
 
     public void inject(InternalContext context, Object o) {
       try {
-        method.invoke(o, getParameters(method, context, parameterInjectors));
+        Object[] parameters =
+            getParameters(method, context, parameterInjectors);
+        if (accessor == null) {
+          method.invoke(o, parameters);
+        } else {
+          try {
+            accessor.invoke(o, parameters);
+          } catch (Throwable t) {
+            // wrapped like Method.invoke() does
+            throw new InvocationTargetException(t);
+          }
+        }
       } catch (Exception e) {
         throw new RuntimeException(e);
       }
@@ -311,6 +336,7 @@ class ContainerImpl implements Container {
     final Class<T> implementation;
     final List<Injector> injectors;
     final Constructor<T> constructor;
+    final ConstructorAccessor accessor;
     final ParameterInjector<?>[] parameterInjectors;
 
     ConstructorInjector(ContainerImpl container, Class<T> implementation) {
@@ -327,6 +353,7 @@ class ContainerImpl implements Container {
                         + implementation.getName() + "(" + constructor.getName() + ")", e);
             }
         }
+      accessor = container.accessorGenerator.forConstructor(constructor);
 
       MissingDependencyException exception = null;
       Inject inject = null;
@@ -388,6 +415,20 @@ class ContainerImpl implements Container {
       }
     }
 
+    @SuppressWarnings("unchecked")
+    private T newInstance(Object[] parameters) throws InstantiationException,
+        IllegalAccessException, InvocationTargetException {
+      if (accessor == null) {
+        return constructor.newInstance(parameters);
+      }
+      try {
+        return (T) accessor.newInstance(parameters);
+      } catch (Throwable t) {
+        // wrapped like Constructor.newInstance() does
+        throw new InvocationTargetException(t);
+      }
+    }
+
     /**
      * Construct an instance. Returns {@code Object} instead of {@code T}
      * because it may return a proxy.
@@ -416,7 +457,7 @@ class ContainerImpl implements Container {
         try {
           Object[] parameters =
               getParameters(constructor, context, parameterInjectors);
-          t = constructor.newInstance(parameters);
+          t = newInstance(parameters);
           constructionContext.setProxyDelegates(t);
         } finally {
           constructionContext.finishConstruction();
@@ -518,6 +559,9 @@ class ContainerImpl implements Container {
   }
 
   public void inject(final Object o) {
+    if (injectors.get(o.getClass()).isEmpty()) {
+      return;
+    }
     callInContext(new ContextualCallable<Void>() {
       public Void call(InternalContext context) {
         inject(o, context);
@@ -535,6 +579,17 @@ class ContainerImpl implements Container {
   }
 
   public <T> T getInstance(final Class<T> type, final String name) {
+    Key<T> key = Key.newInstance(type, name);
+    InternalFactory<? extends T> factory = getFactory(key);
+    if (factory == null) {
+      return null;
+    }
+    if (factory instanceof CachedFactory) {
+      T instance = ((CachedFactory<? extends T>) factory).getCachedInstance();
+      if (instance != null) {
+        return instance;
+      }
+    }
     return callInContext(new ContextualCallable<T>() {
       public T call(InternalContext context) {
         return getInstance(type, name, context);
@@ -543,17 +598,23 @@ class ContainerImpl implements Container {
   }
 
   public <T> T getInstance(final Class<T> type) {
-    return callInContext(new ContextualCallable<T>() {
-      public T call(InternalContext context) {
-        return getInstance(type, context);
-      }
-    });
+    return getInstance(type, DEFAULT_NAME);
   }
   
   public Set<String> getInstanceNames(final Class<?> type) {
     return factoryNamesByType.get(type);
   }
 
+  public void prepare(Class<?>... classes) {
+    for (Class<?> clazz : classes) {
+      try {
+        injectors.get(clazz);
+      } catch (DependencyException e) {
+        // reported again when an instance is injected
+      }
+    }
+  }
+
   ThreadLocal<Object[]> localContext =
       new ThreadLocal<Object[]>() {
         @Override
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+
+package com.opensymphony.xwork2.inject;
+
+/**
+ * Sets a field directly. Subclasses are generated at runtime by
+ * {@link AccessorGenerator}; this class is only public because the generated
+ * classes live in the class loader of the injected class.
+ *
+ * <p>Not part of the container API.
+ */
+public abstract class FieldAccessor {
+
+  protected FieldAccessor() {
+  }
+
+  /**
+   * Sets the field.
+   *
+   * @param target the object, {@code null} for a static field
+   * @param value the new value
+   */
+  public abstract void set(Object target, Object value);
+}
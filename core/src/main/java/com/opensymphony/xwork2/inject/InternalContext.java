@@ -28,8 +28,7 @@ import java.util.Map;
 class InternalContext {
 
   final ContainerImpl container;
-  final Map<Object, ConstructionContext<?>> constructionContexts =
-      new HashMap<Object, ConstructionContext<?>>();
+  Map<Object, ConstructionContext<?>> constructionContexts;
   Scope.Strategy scopeStrategy;
   ExternalContext<?> externalContext;
 
@@ -60,6 +59,10 @@ class InternalContext {
 
   @SuppressWarnings("unchecked")
   <T> ConstructionContext<T> getConstructionContext(Object key) {
+    if (constructionContexts == null) {
+      // only contexts that construct objects need this
+      constructionContexts = new HashMap<Object, ConstructionContext<?>>();
+    }
     ConstructionContext<T> constructionContext =
         (ConstructionContext<T>) constructionContexts.get(key);
     if (constructionContext == null) {
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+
+package com.opensymphony.xwork2.inject;
+
+/**
+ * Calls a method directly. Subclasses are generated at runtime by
+ * {@link AccessorGenerator}; this class is only public because the generated
+ * classes live in the class loader of the injected class.
+ *
+ * <p>Not part of the container API.
+ */
+public abstract class MethodAccessor {
+
+  protected MethodAccessor() {
+  }
+
+  /**
+   * Calls the method, ignoring its return value.
+   *
+   * @param target the object, {@code null} for a static method
+   * @param args the method arguments
+   */
+  public abstract void invoke(Object target, Object[] args) throws Exception;
+}
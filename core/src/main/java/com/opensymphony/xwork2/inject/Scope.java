@@ -43,15 +43,25 @@ public enum Scope {
     @Override
             <T> InternalFactory<? extends T> scopeFactory(Class<T> type, String name,
         final InternalFactory<? extends T> factory) {
-      return new InternalFactory<T>() {
-        T instance;
+      return new CachedFactory<T>() {
+        volatile T instance;
+        public T getCachedInstance() {
+          return instance;
+        }
+
         public T create(InternalContext context) {
-          synchronized (context.getContainer()) {
-            if (instance == null) {
-              instance = factory.create(context);
+          // double-checked: only the first creation locks the container
+          T t = instance;
+          if (t == null) {
+            synchronized (context.getContainer()) {
+              t = instance;
+              if (t == null) {
+                t = factory.create(context);
+                instance = t;
+              }
             }
-            return instance;
           }
+          return t;
         }
 
         @Override
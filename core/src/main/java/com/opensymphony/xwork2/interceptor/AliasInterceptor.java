@@ -18,7 +18,13 @@ import com.opensymphony.xwork2.util.reflection.ReflectionContextState;
 import com.opensymphony.xwork2.util.logging.Logger;
 import com.opensymphony.xwork2.util.logging.LoggerFactory;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 
 /**
@@ -79,6 +85,14 @@ public class AliasInterceptor extends AbstractInterceptor {
     private static final Logger LOG = LoggerFactory.getLogger(AliasInterceptor.class);
 
     private static final String DEFAULT_ALIAS_KEY = "aliases";
+
+    /**
+     * One <tt>'key' : 'value'</tt> entry of a map literal, with single or double quoted strings.
+     */
+    private static final Pattern ALIAS_ENTRY = Pattern.compile("\\s*(['\"])([^'\"\\\\]*)\\1\\s*:\\s*(['\"])([^'\"\\\\]*)\\3\\s*(,|$)");
+    private static final Map<String, String> NOT_A_LITERAL = Collections.emptyMap();
+
+    private final ConcurrentMap<String, Map<String, String>> aliasMaps = new ConcurrentHashMap<String, Map<String, String>>();
     protected String aliasesKey = DEFAULT_ALIAS_KEY;
 
     protected ValueStackFactory valueStackFactory;
@@ -118,7 +132,10 @@ public class AliasInterceptor extends AbstractInterceptor {
 
             String aliasExpression = parameters.get(aliasesKey);
             ValueStack stack = ac.getValueStack();
-            Object obj = stack.findValue(aliasExpression);
+            Object obj = findAliases(aliasExpression);
+            if (obj == null) {
+                obj = stack.findValue(aliasExpression);
+            }
 
             if (obj != null && obj instanceof Map) {
                 //get secure stack
@@ -178,5 +195,47 @@ public class AliasInterceptor extends AbstractInterceptor {
         
         return invocation.invoke();
     }
-    
+
+    /**
+     * Alias expressions are almost always map literals such as <code>#{ 'source' : 'dest' }</code>, which only need
+     * to be parsed once. Maps of anything else, e.g. values taken from the value stack, are evaluated on
+     * every request.
+     *
+     * @param aliasExpression the alias expression
+     * @return the parsed aliases, or <tt>null</tt> if the expression is not a literal map of strings
+     */
+    protected Map<String, String> findAliases(String aliasExpression) {
+        Map<String, String> aliases = aliasMaps.get(aliasExpression);
+        if (aliases == null) {
+            aliases = parseAliases(aliasExpression);
+            if (aliases == null) {
+                aliases = NOT_A_LITERAL;
+            }
+            aliasMaps.putIfAbsent(aliasExpression, aliases);
+        }
+        return (aliases == NOT_A_LITERAL) ? null : aliases;
+    }
+
+    private static Map<String, String> parseAliases(String aliasExpression) {
+        String expression = aliasExpression.trim();
+        if (!expression.startsWith("#{") || !expression.endsWith("}")) {
+            return null;
+        }
+
+        String body = expression.substring(2, expression.length() - 1);
+        Map<String, String> aliases = new LinkedHashMap<String, String>();
+        Matcher matcher = ALIAS_ENTRY.matcher(body);
+        int position = 0;
+
+        while (body.substring(position).trim().length() > 0) {
+            if (!matcher.find(position) || (matcher.start() != position)) {
+                return null;
+            }
+            aliases.put(matcher.group(2), matcher.group(4));
+            position = matcher.end();
+        }
+
+        return Collections.unmodifiableMap(aliases);
+    }
+
 }
@@ -12,6 +12,8 @@ import com.opensymphony.xwork2.util.logging.LoggerFactory;
 
 import java.util.Locale;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * <!-- START SNIPPET: description -->
@@ -80,6 +82,12 @@ public class I18nInterceptor extends AbstractInterceptor {
     public static final String DEFAULT_PARAMETER = "request_locale";
     public static final String DEFAULT_REQUESTONLY_PARAMETER = "request_only_locale";
 
+    /**
+     * Parsed locale parameters. The cache is bounded, as the parameter values come from the client.
+     */
+    private static final ConcurrentMap<String, Locale> LOCALES = new ConcurrentHashMap<String, Locale>();
+    private static final int MAX_CACHED_LOCALES = 256;
+
     protected String parameterName = DEFAULT_PARAMETER;
     protected String requestOnlyParameterName = DEFAULT_REQUESTONLY_PARAMETER;
     protected String attributeName = DEFAULT_SESSION_ATTRIBUTE;
@@ -127,33 +135,33 @@ public class I18nInterceptor extends AbstractInterceptor {
         Locale locale = null;
         if (requested_locale != null) {
             locale = (requested_locale instanceof Locale) ?
-                    (Locale) requested_locale : LocalizedTextUtil.localeFromString(requested_locale.toString(), null);
+                    (Locale) requested_locale : parseLocale(requested_locale.toString());
             if (locale != null && LOG.isDebugEnabled()) {
                 LOG.debug("applied request locale=" + locale);
             }
         }
         if (session != null) {
-            synchronized (session) {
-                if (locale == null) {
-                    storeInSession = false;
-                    // check session for saved locale
-                    Object sessionLocale = session.get(attributeName);
-                    if (sessionLocale != null && sessionLocale instanceof Locale) {
-                        locale = (Locale) sessionLocale;
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("applied session locale=" + locale);
-                        }
-                    } else {
-                        // no overriding locale definition found, stay with current invocation (=browser) locale
-                        locale = invocation.getInvocationContext().getLocale();
-                        if (locale != null && LOG.isDebugEnabled()) {
-                            LOG.debug("applied invocation context locale=" + locale);
-                        }
+            // the session is only read, and only written when the locale changes, so concurrent requests of the
+            // same session don't have to wait for each other
+            Object sessionLocale = session.get(attributeName);
+            if (locale == null) {
+                storeInSession = false;
+                // check session for saved locale
+                if (sessionLocale != null && sessionLocale instanceof Locale) {
+                    locale = (Locale) sessionLocale;
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("applied session locale=" + locale);
+                    }
+                } else {
+                    // no overriding locale definition found, stay with current invocation (=browser) locale
+                    locale = invocation.getInvocationContext().getLocale();
+                    if (locale != null && LOG.isDebugEnabled()) {
+                        LOG.debug("applied invocation context locale=" + locale);
                     }
                 }
-                if (storeInSession) {
-                    session.put(attributeName, locale);
-                }
+            }
+            if (storeInSession && !locale.equals(sessionLocale)) {
+                session.put(attributeName, locale);
             }
         }
         saveLocale(invocation, locale);
@@ -187,6 +195,24 @@ public class I18nInterceptor extends AbstractInterceptor {
         return requested_locale;
     }
 
+    /**
+     * Parses the locale parameter, reusing the locales parsed before.
+     *
+     * @param localeStr the locale parameter
+     * @return the locale
+     */
+    private Locale parseLocale(String localeStr) {
+        Locale locale = LOCALES.get(localeStr);
+        if (locale == null) {
+            locale = LocalizedTextUtil.localeFromString(localeStr, null);
+            // blank parameters give the default locale, which may change
+            if (!locale.equals(Locale.getDefault()) && (LOCALES.size() < MAX_CACHED_LOCALES)) {
+                LOCALES.put(localeStr, locale);
+            }
+        }
+        return locale;
+    }
+
     /**
      * Save the given locale to the ActionInvocation.
      *
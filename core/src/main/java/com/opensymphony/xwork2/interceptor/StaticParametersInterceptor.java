@@ -148,7 +148,7 @@ public class StaticParametersInterceptor extends AbstractInterceptor {
 
                 for (Map.Entry<String, String> entry : parameters.entrySet()) {
                     Object val = entry.getValue();
-                    if (parse && val instanceof String) {
+                    if (parse && val instanceof String && containsExpression((String) val)) {
                         val = TextParseUtil.translateVariables(val.toString(), stack);
                     }
                     try {
@@ -180,6 +180,14 @@ public class StaticParametersInterceptor extends AbstractInterceptor {
     }
 
 
+    /**
+     * Static values without <tt>${...}</tt> or <tt>%{...}</tt> are used as they are, without going through
+     * {@link TextParseUtil#translateVariables(String, ValueStack)}.
+     */
+    private static boolean containsExpression(String value) {
+        return (value.indexOf("${") != -1) || (value.indexOf("%{") != -1);
+    }
+
     /**
      * @param ac The action context
      * @return the parameters from the action mapping in the context.  If none found, returns
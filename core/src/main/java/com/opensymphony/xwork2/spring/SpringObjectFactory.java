@@ -6,10 +6,11 @@ package com.opensymphony.xwork2.spring;
 
 import com.opensymphony.xwork2.ObjectFactory;
 import com.opensymphony.xwork2.inject.Inject;
+import com.opensymphony.xwork2.util.classloader.ReloadingClassLoader;
 import com.opensymphony.xwork2.util.logging.Logger;
 import com.opensymphony.xwork2.util.logging.LoggerFactory;
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeansException;
-import org.springframework.beans.factory.NoSuchBeanDefinitionException;
 import org.springframework.beans.factory.UnsatisfiedDependencyException;
 import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
 import org.springframework.context.ApplicationContext;
@@ -17,8 +18,11 @@ import org.springframework.context.ApplicationContextAware;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import java.lang.reflect.Constructor;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Simple implementation of the ObjectFactory that makes use of Spring's application context if one has been configured,
@@ -35,9 +39,27 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
     protected AutowireCapableBeanFactory autoWiringFactory;
     protected int autowireStrategy = AutowireCapableBeanFactory.AUTOWIRE_BY_NAME;
     private final Map<String, Object> classes = new HashMap<String, Object>();
+    private final ConcurrentMap<Class, ConstructorPlan> constructorPlans = new ConcurrentHashMap<Class, ConstructorPlan>();
     private boolean useClassCache = true;
     private boolean alwaysRespectAutowireStrategy = false;
 
+    /**
+     * How beans of a class are constructed when the autowire strategy isn't always respected.
+     */
+    enum ConstructorPlan {
+        /** The class only has a no-arg constructor, so there is nothing to autowire. */
+        NO_ARG,
+        /** Let Spring pick and autowire a constructor. */
+        AUTOWIRE,
+        /** Spring couldn't satisfy the constructor before, use the default ObjectFactory. */
+        FALL_BACK
+    }
+
+    /**
+     * Upper bound of classes whose constructor plan is cached, so the cache can't grow without limit.
+     */
+    static final int MAX_CONSTRUCTOR_PLANS = 10000;
+
     @Inject(value="applicationContextPath",required=false)
     public void setApplicationContextPath(String ctx) {
         if (ctx != null) {
@@ -54,6 +76,7 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
             throws BeansException {
         this.appContext = appContext;
         autoWiringFactory = findAutoWiringBeanFactory(this.appContext);
+        constructorPlans.clear();
     }
 
     /**
@@ -115,7 +138,8 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
 
     /**
      * Looks up beans using Spring's application context before falling back to the method defined in the {@link
-     * ObjectFactory}.
+     * ObjectFactory}. Names that aren't beans, usually class names, are recognized with
+     * {@link ApplicationContext#containsBean(String)} rather than by a failing bean lookup.
      *
      * @param beanName     The name of the bean to look up in the application context
      * @param extraContext
@@ -125,10 +149,10 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
      */
     @Override
     public Object buildBean(String beanName, Map<String, Object> extraContext, boolean injectInternal) throws Exception {
-        Object o = null;
-        try {
+        Object o;
+        if (appContext.containsBean(beanName)) {
             o = appContext.getBean(beanName);
-        } catch (NoSuchBeanDefinitionException e) {
+        } else {
             Class beanClazz = getClassInstance(beanName);
             o = buildBean(beanClazz, extraContext);
         }
@@ -146,6 +170,7 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
     @Override
     public Object buildBean(Class clazz, Map<String, Object> extraContext) throws Exception {
         Object bean;
+        ConstructorPlan plan = null;
 
         try {
             // Decide to follow autowire strategy or use the legacy approach which mixes injection strategies
@@ -155,13 +180,24 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
                 injectApplicationContext(bean);
                 return injectInternalBeans(bean);
             } else {
-                bean = autoWiringFactory.autowire(clazz, AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR, false);
+                plan = getConstructorPlan(clazz);
+                if (plan == ConstructorPlan.FALL_BACK) {
+                    return autoWireBean(super.buildBean(clazz, extraContext), autoWiringFactory);
+                } else if (plan == ConstructorPlan.NO_ARG) {
+                    bean = BeanUtils.instantiateClass(clazz);
+                } else {
+                    bean = autoWiringFactory.autowire(clazz, AutowireCapableBeanFactory.AUTOWIRE_CONSTRUCTOR, false);
+                }
                 bean = autoWiringFactory.applyBeanPostProcessorsBeforeInitialization(bean, bean.getClass().getName());
                 // We don't need to call the init-method since one won't be registered.
                 bean = autoWiringFactory.applyBeanPostProcessorsAfterInitialization(bean, bean.getClass().getName());
                 return autoWireBean(bean, autoWiringFactory);
             }
         } catch (UnsatisfiedDependencyException e) {
+            if (plan == ConstructorPlan.AUTOWIRE) {
+                // don't make Spring fail on this class again
+                cacheConstructorPlan(clazz, ConstructorPlan.FALL_BACK);
+            }
             if (LOG.isErrorEnabled())
                 LOG.error("Error building bean", e);
             // Fall back
@@ -169,6 +205,47 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
         }
     }
 
+    @Override
+    public void clearCaches() {
+        super.clearCaches();
+        synchronized (classes) {
+            classes.clear();
+        }
+        constructorPlans.clear();
+    }
+
+    ConstructorPlan getConstructorPlan(Class clazz) {
+        ConstructorPlan plan = constructorPlans.get(clazz);
+        if (plan == null) {
+            Constructor[] constructors = clazz.getDeclaredConstructors();
+            if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
+                plan = ConstructorPlan.NO_ARG;
+            } else {
+                plan = ConstructorPlan.AUTOWIRE;
+            }
+            cacheConstructorPlan(clazz, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Caches the constructor plan of the given class. Classes of a {@link ReloadingClassLoader} are not cached, and
+     * neither is anything once {@link #MAX_CONSTRUCTOR_PLANS} classes are. The cache is cleared when the application
+     * context is set.
+     */
+    private void cacheConstructorPlan(Class clazz, ConstructorPlan plan) {
+        if (clazz.getClassLoader() instanceof ReloadingClassLoader) {
+            return;
+        }
+        if (constructorPlans.containsKey(clazz) || constructorPlans.size() < MAX_CONSTRUCTOR_PLANS) {
+            constructorPlans.put(clazz, plan);
+        }
+    }
+
+    int getConstructorPlanCount() {
+        return constructorPlans.size();
+    }
+
     public Object autoWireBean(Object bean) {
         return autoWireBean(bean, autoWiringFactory);
     }
@@ -243,6 +320,14 @@ public class SpringObjectFactory extends ObjectFactory implements ApplicationCon
         return false;
     }
 
+    /**
+     * Beans are created by Spring, never by the container, so they are always injected after being built.
+     */
+    @Override
+    public boolean isInjectedOnConstruction(Class clazz) {
+        return false;
+    }
+
     /**
      *  Enable / disable caching of classes loaded by Spring.
      *
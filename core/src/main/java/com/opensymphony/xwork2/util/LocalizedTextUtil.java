@@ -13,14 +13,17 @@ import com.opensymphony.xwork2.util.logging.LoggerFactory;
 import com.opensymphony.xwork2.util.reflection.ReflectionProviderFactory;
 
 import java.beans.PropertyDescriptor;
+import java.io.File;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.text.MessageFormat;
+import java.net.URISyntaxException;
+import java.net.URL;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 
 /**
@@ -72,9 +75,21 @@ public class LocalizedTextUtil {
     private static final List<String> DEFAULT_RESOURCE_BUNDLES = new CopyOnWriteArrayList<String>();
     private static final Logger LOG = LoggerFactory.getLogger(LocalizedTextUtil.class);
     private static boolean reloadBundles = false;
+    private static boolean flattenBundles = false;
+    private static long reloadCheckInterval = 1000;
+    private static final AtomicLong nextReloadCheck = new AtomicLong();
     private static final ResourceBundle EMPTY_BUNDLE = new EmptyResourceBundle();
     private static final ConcurrentMap<String, ResourceBundle> bundlesMap = new ConcurrentHashMap<String, ResourceBundle>();
-    private static final Map<MessageFormatKey, MessageFormat> messageFormats = new HashMap<MessageFormatKey, MessageFormat>();
+    private static final ConcurrentMap<MessageFormatKey, MessageTemplate> messageFormats = new ConcurrentHashMap<MessageFormatKey, MessageTemplate>();
+    private static final ConcurrentMap<MessageLocationKey, MessageLocation> messageLocations = new ConcurrentHashMap<MessageLocationKey, MessageLocation>();
+    private static final ConcurrentMap<Locale, ResourceBundle> defaultBundlesMap = new ConcurrentHashMap<Locale, ResourceBundle>();
+    private static final ConcurrentMap<String, BundleRevision> bundleRevisions = new ConcurrentHashMap<String, BundleRevision>();
+    private static final ConcurrentMap<String, String> indexedKeys = new ConcurrentHashMap<String, String>();
+    private static final ConcurrentMap<ResourceBundle, Boolean> indexedBundles = new ConcurrentHashMap<ResourceBundle, Boolean>();
+    private static final int MAX_INDEXED_KEYS = 10000;
+    private static final Map<String, SharedBundleKeys> sharedBundleKeys = new HashMap<String, SharedBundleKeys>();
+    private static final String DEFAULT_BUNDLES_KEY = "[default resource bundles]";
+    private static final int MAP_ENTRY_BYTES = 32;
 
     private static ClassLoader delegatedClassLoader;
     
@@ -92,6 +107,8 @@ public class LocalizedTextUtil {
                 DEFAULT_RESOURCE_BUNDLES.clear();
                 DEFAULT_RESOURCE_BUNDLES.add("com/opensymphony/xwork2/xwork-messages");
             }
+            defaultBundlesMap.clear();
+            messageLocations.clear();
         } else {
             synchronized (DEFAULT_RESOURCE_BUNDLES) {
                 DEFAULT_RESOURCE_BUNDLES.add("com/opensymphony/xwork2/xwork-messages");
@@ -106,6 +123,36 @@ public class LocalizedTextUtil {
      */
     public static void setReloadBundles(boolean reloadBundles) {
         LocalizedTextUtil.reloadBundles = reloadBundles;
+        messageLocations.clear();
+        bundleRevisions.clear();
+        nextReloadCheck.set(0);
+    }
+
+    /**
+     * How often, in milliseconds, the <tt>.properties</tt> files of loaded bundles are checked for changes while
+     * {@link #setReloadBundles(boolean) reloading} is on. Only bundles whose files changed are reloaded.
+     * Defaults to one second; <tt>0</tt> checks on every lookup.
+     *
+     * @param reloadCheckInterval the interval in milliseconds
+     */
+    public static void setReloadCheckInterval(long reloadCheckInterval) {
+        LocalizedTextUtil.reloadCheckInterval = reloadCheckInterval;
+        nextReloadCheck.set(0);
+    }
+
+    /**
+     * Should resource bundles be flattened. A flattened bundle holds the keys of the bundle and all its parents in
+     * a single immutable hash table, so a lookup is a single probe instead of a walk up the parent chain. The
+     * default resource bundles are merged into one such table per locale as well.
+     * <p/>
+     * Bundles are flattened when first used; bundles already cached are only affected after {@link #reset()}.
+     * Bundles are never flattened while {@link #setReloadBundles(boolean) reloading} is on.
+     *
+     * @param flattenBundles flatten bundles?
+     */
+    public static void setFlattenBundles(boolean flattenBundles) {
+        LocalizedTextUtil.flattenBundles = flattenBundles;
+        defaultBundlesMap.clear();
     }
 
     /**
@@ -121,6 +168,7 @@ public class LocalizedTextUtil {
             DEFAULT_RESOURCE_BUNDLES.remove(resourceBundleName);
             DEFAULT_RESOURCE_BUNDLES.add(0, resourceBundleName);
         }
+        defaultBundlesMap.clear();
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Added default resource bundle '" + resourceBundleName + "' to default resource bundles = " + DEFAULT_RESOURCE_BUNDLES);
@@ -178,6 +226,14 @@ public class LocalizedTextUtil {
      * @return a localized message based on the specified key, or null if no localized message can be found for it
      */
     public static String findDefaultText(String aTextName, Locale locale) {
+        if (flattenBundles && !reloadBundles && (locale != null)) {
+            try {
+                return findDefaultResourceBundle(locale).getString(aTextName);
+            } catch (MissingResourceException e) {
+                return null;
+            }
+        }
+
         List<String> localList = DEFAULT_RESOURCE_BUNDLES;
 
         for (String bundleName : localList) {
@@ -207,7 +263,7 @@ public class LocalizedTextUtil {
     public static String findDefaultText(String aTextName, Locale locale, Object[] params) {
         String defaultText = findDefaultText(aTextName, locale);
         if (defaultText != null) {
-            MessageFormat mf = buildMessageFormat(defaultText, locale);
+            MessageTemplate mf = buildMessageFormat(defaultText, locale);
             return mf.format(params);
         }
         return null;
@@ -225,43 +281,114 @@ public class LocalizedTextUtil {
      * @return the bundle, <tt>null</tt> if not found.
      */
     public static ResourceBundle findResourceBundle(String aBundleName, Locale locale) {
+        reloadBundles();
+        return getResourceBundle(aBundleName, locale);
+    }
+
+    /**
+     * Finds the resource bundle like {@link #findResourceBundle(String, Locale)}, without checking whether bundles
+     * need to be reloaded.
+     */
+    private static ResourceBundle getResourceBundle(String aBundleName, Locale locale) {
         String key = createMissesKey(aBundleName, locale);
+        ResourceBundle bundle = bundlesMap.get(key);
 
-        ResourceBundle bundle;
+        if (bundle == null) {
+            bundle = loadResourceBundle(aBundleName, locale);
 
-        try {
-            if (!bundlesMap.containsKey(key)) {
-                bundle = ResourceBundle.getBundle(
-                        aBundleName,
-                        locale,
-                        Thread.currentThread().getContextClassLoader());
-                bundlesMap.put(key, bundle);
+            if (flattenBundles && !reloadBundles && (bundle != EMPTY_BUNDLE)) {
+                bundle = flatten(aBundleName, entriesOf(bundle), bundle.getLocale());
+            }
+
+            ResourceBundle existing = bundlesMap.putIfAbsent(key, bundle);
+            if (existing != null) {
+                bundle = existing;
+            } else if (reloadBundles && (bundle != EMPTY_BUNDLE)) {
+                bundleRevisions.put(key, BundleRevision.build(aBundleName, locale));
             }
+        }
+
+        return (bundle == EMPTY_BUNDLE) ? null : bundle;
+    }
 
-            bundle = bundlesMap.get(key);
+    private static ResourceBundle loadResourceBundle(String aBundleName, Locale locale) {
+        try {
+            return ResourceBundle.getBundle(
+                    aBundleName,
+                    locale,
+                    Thread.currentThread().getContextClassLoader());
         } catch (MissingResourceException ex) {
-            if ( delegatedClassLoader != null) {
+            if (delegatedClassLoader != null) {
                 try {
-                    if (!bundlesMap.containsKey(key)) {
-                        bundle = ResourceBundle.getBundle(
-                                aBundleName,
-                                locale,
-                                delegatedClassLoader);
-                        bundlesMap.put(key, bundle);
-                    }
-
-                    bundle = bundlesMap.get(key);
-                    
+                    return ResourceBundle.getBundle(
+                            aBundleName,
+                            locale,
+                            delegatedClassLoader);
                 } catch (MissingResourceException e) {
-                    bundle = EMPTY_BUNDLE;
-                    bundlesMap.put(key, bundle);
+                    // ignore
                 }
-            } else {
-                bundle = EMPTY_BUNDLE;
-                bundlesMap.put(key, bundle);
             }
         }
-        return (bundle == EMPTY_BUNDLE) ? null : bundle;
+
+        return EMPTY_BUNDLE;
+    }
+
+    /**
+     * Merges the default resource bundles for the locale into one flattened bundle, where bundles added
+     * first win over bundles added later.
+     */
+    private static ResourceBundle findDefaultResourceBundle(Locale locale) {
+        ResourceBundle bundle = defaultBundlesMap.get(locale);
+
+        if (bundle == null) {
+            List<String> bundleNames = new ArrayList<String>(DEFAULT_RESOURCE_BUNDLES);
+            Map<String, Object> entries = new HashMap<String, Object>();
+
+            for (int i = bundleNames.size() - 1; i >= 0; i--) {
+                ResourceBundle defaultBundle = findResourceBundle(bundleNames.get(i), locale);
+                if (defaultBundle != null) {
+                    putAll(defaultBundle, entries);
+                }
+            }
+
+            bundle = flatten(DEFAULT_BUNDLES_KEY, entries, locale);
+            ResourceBundle existing = defaultBundlesMap.putIfAbsent(locale, bundle);
+            if (existing != null) {
+                bundle = existing;
+            }
+        }
+
+        return bundle;
+    }
+
+    /**
+     * Flattens the entries into a bundle sharing its key table with the other locales of the bundle name.
+     */
+    private static ResourceBundle flatten(String bundleName, Map<String, Object> entries, Locale locale) {
+        SharedBundleKeys keys;
+
+        synchronized (sharedBundleKeys) {
+            keys = sharedBundleKeys.get(bundleName);
+            if ((keys == null) || !keys.containsAll(entries.keySet())) {
+                keys = new SharedBundleKeys(keys, entries.keySet());
+                sharedBundleKeys.put(bundleName, keys);
+            }
+        }
+
+        return new FlattenedResourceBundle(keys, entries, locale);
+    }
+
+    private static Map<String, Object> entriesOf(ResourceBundle bundle) {
+        Map<String, Object> entries = new HashMap<String, Object>();
+        putAll(bundle, entries);
+        return entries;
+    }
+
+    private static void putAll(ResourceBundle bundle, Map<String, Object> entries) {
+        for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements();) {
+            String key = keys.nextElement();
+            entries.put(key, bundle.getObject(key));
+        }
     }
 
     /**
@@ -273,6 +400,7 @@ public class LocalizedTextUtil {
         synchronized (bundlesMap) {
             delegatedClassLoader = classLoader;
         }
+        messageLocations.clear();
     }
 
     /**
@@ -284,6 +412,9 @@ public class LocalizedTextUtil {
         synchronized (bundlesMap) {
             bundlesMap.remove(bundleName);
         }
+        messageLocations.clear();
+        defaultBundlesMap.clear();
+        indexedBundles.clear();
     }
 
 
@@ -419,21 +550,12 @@ public class LocalizedTextUtil {
             aTextName = "";
         }
         // calculate indexedTextName (collection[*]) if applicable
-        if (aTextName.contains("[")) {
-            int i = -1;
-
-            indexedTextName = aTextName;
-
-            while ((i = indexedTextName.indexOf("[", i + 1)) != -1) {
-                int j = indexedTextName.indexOf("]", i);
-                String a = indexedTextName.substring(0, i);
-                String b = indexedTextName.substring(j);
-                indexedTextName = a + "[*" + b;
-            }
+        if (aTextName.indexOf('[') != -1) {
+            indexedTextName = findIndexedKey(aTextName);
         }
 
         // search up class hierarchy
-        String msg = findMessage(aClass, aTextName, indexedTextName, locale, args, null, valueStack);
+        String msg = findMessage(aClass, aTextName, indexedTextName, locale, args, false, valueStack);
 
         if (msg != null) {
             return msg;
@@ -450,7 +572,7 @@ public class LocalizedTextUtil {
                 if (action instanceof ModelDriven) {
                     Object model = ((ModelDriven) action).getModel();
                     if (model != null) {
-                        msg = findMessage(model.getClass(), aTextName, indexedTextName, locale, args, null, valueStack);
+                        msg = findMessage(model.getClass(), aTextName, indexedTextName, locale, args, false, valueStack);
                         if (msg != null) {
                             return msg;
                         }
@@ -460,28 +582,10 @@ public class LocalizedTextUtil {
         }
 
         // nothing still? alright, search the package hierarchy now
-        for (Class clazz = aClass;
-             (clazz != null) && !clazz.equals(Object.class);
-             clazz = clazz.getSuperclass()) {
+        msg = findMessage(aClass, aTextName, indexedTextName, locale, args, true, valueStack);
 
-            String basePackageName = clazz.getName();
-            while (basePackageName.lastIndexOf('.') != -1) {
-                basePackageName = basePackageName.substring(0, basePackageName.lastIndexOf('.'));
-                String packageName = basePackageName + ".package";
-                msg = getMessage(packageName, locale, aTextName, valueStack, args);
-
-                if (msg != null) {
-                    return msg;
-                }
-
-                if (indexedTextName != null) {
-                    msg = getMessage(packageName, locale, indexedTextName, valueStack, args);
-
-                    if (msg != null) {
-                        return msg;
-                    }
-                }
-            }
+        if (msg != null) {
+            return msg;
         }
 
         // see if it's a child property
@@ -558,6 +662,196 @@ public class LocalizedTextUtil {
         return result != null ? result.message : null;
     }
 
+    /**
+     * Finds the messages for many keys in one pass over the resource bundles of the class: the bundles of the
+     * class hierarchy, then of the package hierarchy, then the default resource bundles. The messages are returned
+     * unformatted, as stored in the bundles, and keys without a message are left out. Unlike
+     * {@link #findText(Class, String, Locale)}, the model of a {@link ModelDriven} action and child properties are
+     * not searched.
+     *
+     * @param aClass the class whose resource bundles are searched
+     * @param keys   the message keys
+     * @param locale the locale the messages should be for
+     * @return the messages found
+     */
+    public static LocalizedTexts findTexts(Class aClass, Collection<String> keys, Locale locale) {
+        Map<String, String> texts = new HashMap<String, String>();
+        Set<String> remaining = new HashSet<String>(keys);
+
+        reloadBundles();
+        for (String bundleName : findBundleNames(aClass)) {
+            if (remaining.isEmpty()) {
+                break;
+            }
+
+            ResourceBundle bundle = getResourceBundle(bundleName, locale);
+            if (bundle == null) {
+                continue;
+            }
+
+            boolean indexed = hasIndexedKeys(bundle);
+            for (Iterator<String> i = remaining.iterator(); i.hasNext();) {
+                String key = i.next();
+                String message = getString(bundle, key);
+                if ((message == null) && indexed && (key.indexOf('[') != -1)) {
+                    String indexedKey = findIndexedKey(key);
+                    if (indexedKey != null) {
+                        message = getString(bundle, indexedKey);
+                    }
+                }
+                if (message != null) {
+                    texts.put(key, message);
+                    i.remove();
+                }
+            }
+        }
+
+        return new LocalizedTexts(locale, texts);
+    }
+
+    /**
+     * Finds the messages of all keys starting with the prefix, searching the same resource bundles in the same
+     * order as {@link #findTexts(Class, Collection, Locale)}.
+     *
+     * @param aClass    the class whose resource bundles are searched
+     * @param keyPrefix the prefix of the message keys, an empty prefix returns all messages
+     * @param locale    the locale the messages should be for
+     * @return the messages found
+     */
+    public static LocalizedTexts findTexts(Class aClass, String keyPrefix, Locale locale) {
+        Map<String, String> texts = new HashMap<String, String>();
+
+        reloadBundles();
+        for (String bundleName : findBundleNames(aClass)) {
+            ResourceBundle bundle = getResourceBundle(bundleName, locale);
+            if (bundle == null) {
+                continue;
+            }
+
+            for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements();) {
+                String key = keys.nextElement();
+                if (key.startsWith(keyPrefix) && !texts.containsKey(key)) {
+                    String message = getString(bundle, key);
+                    if (message != null) {
+                        texts.put(key, message);
+                    }
+                }
+            }
+        }
+
+        return new LocalizedTexts(locale, texts);
+    }
+
+    /**
+     * Lists the bundles {@link #findText(Class, String, Locale)} searches for the class, in search order.
+     */
+    private static Set<String> findBundleNames(Class aClass) {
+        Set<String> bundleNames = new LinkedHashSet<String>();
+
+        addClassBundleNames(aClass, bundleNames);
+
+        for (Class clazz = aClass;
+             (clazz != null) && !clazz.equals(Object.class);
+             clazz = clazz.getSuperclass()) {
+
+            String basePackageName = clazz.getName();
+            while (basePackageName.lastIndexOf('.') != -1) {
+                basePackageName = basePackageName.substring(0, basePackageName.lastIndexOf('.'));
+                bundleNames.add(basePackageName + ".package");
+            }
+        }
+
+        bundleNames.addAll(DEFAULT_RESOURCE_BUNDLES);
+
+        return bundleNames;
+    }
+
+    private static void addClassBundleNames(Class clazz, Set<String> bundleNames) {
+        bundleNames.add(clazz.getName());
+
+        Class[] interfaces = clazz.getInterfaces();
+        for (Class anInterface : interfaces) {
+            bundleNames.add(anInterface.getName());
+        }
+
+        if (clazz.isInterface()) {
+            for (Class anInterface : interfaces) {
+                addClassBundleNames(anInterface, bundleNames);
+            }
+        } else if (!clazz.equals(Object.class) && !clazz.isPrimitive()) {
+            addClassBundleNames(clazz.getSuperclass(), bundleNames);
+        }
+    }
+
+    private static String getString(ResourceBundle bundle, String key) {
+        try {
+            return bundle.getString(key);
+        } catch (MissingResourceException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the key with every index replaced by <tt>*</tt>, e.g. <tt>users[*].name</tt> for
+     * <tt>users[3].name</tt>, or <tt>null</tt> if that is the key itself.
+     */
+    private static String findIndexedKey(String key) {
+        String indexedKey = indexedKeys.get(key);
+
+        if (indexedKey == null) {
+            indexedKey = buildIndexedKey(key);
+            // keys with ever changing indexes must not grow the cache without bounds
+            if (indexedKeys.size() < MAX_INDEXED_KEYS) {
+                indexedKeys.put(key, indexedKey);
+            }
+        }
+
+        return indexedKey.equals(key) ? null : indexedKey;
+    }
+
+    private static String buildIndexedKey(String key) {
+        StringBuilder sb = new StringBuilder(key.length());
+        int start = 0;
+        int open;
+
+        while ((open = key.indexOf('[', start)) != -1) {
+            int close = key.indexOf(']', open);
+            if (close == -1) {
+                break;
+            }
+            sb.append(key, start, open + 1).append('*');
+            start = close;
+        }
+        sb.append(key, start, key.length());
+
+        return sb.toString();
+    }
+
+    /**
+     * Determines if the bundle has any <tt>[*]</tt> keys, so indexed keys are only looked up in bundles that
+     * may contain them.
+     */
+    private static boolean hasIndexedKeys(ResourceBundle bundle) {
+        if (bundle instanceof FlattenedResourceBundle) {
+            return ((FlattenedResourceBundle) bundle).hasIndexedKeys();
+        }
+
+        Boolean indexed = indexedBundles.get(bundle);
+
+        if (indexed == null) {
+            indexed = Boolean.FALSE;
+            for (Enumeration<String> keys = bundle.getKeys(); keys.hasMoreElements();) {
+                if (keys.nextElement().indexOf("[*]") != -1) {
+                    indexed = Boolean.TRUE;
+                    break;
+                }
+            }
+            indexedBundles.put(bundle, indexed);
+        }
+
+        return indexed;
+    }
+
     /**
      * Determines if we found the text in the bundles.
      *
@@ -649,7 +943,7 @@ public class LocalizedTextUtil {
             reloadBundles();
 
             String message = TextParseUtil.translateVariables(bundle.getString(aTextName), valueStack);
-            MessageFormat mf = buildMessageFormat(message, locale);
+            MessageTemplate mf = buildMessageFormat(message, locale);
 
             return mf.format(args);
         } catch (MissingResourceException ex) {
@@ -685,7 +979,7 @@ public class LocalizedTextUtil {
 
             // defaultMessage may be null
             if (message != null) {
-                MessageFormat mf = buildMessageFormat(TextParseUtil.translateVariables(message, valueStack), locale);
+                MessageTemplate mf = buildMessageFormat(TextParseUtil.translateVariables(message, valueStack), locale);
 
                 String msg = mf.format(args);
                 result = new GetDefaultMessageReturnArg(msg, found);
@@ -713,26 +1007,28 @@ public class LocalizedTextUtil {
 
         try {
             String message = TextParseUtil.translateVariables(bundle.getString(key), valueStack);
-            MessageFormat mf = buildMessageFormat(message, locale);
+            MessageTemplate mf = buildMessageFormat(message, locale);
             return mf.format(args);
         } catch (MissingResourceException e) {
             return null;
         }
     }
 
-    private static MessageFormat buildMessageFormat
+    /**
+     * Returns the compiled template for the pattern and locale. Templates are immutable, so they are shared
+     * between threads without locking.
+     */
+    private static MessageTemplate buildMessageFormat
             (String
                     pattern, Locale
                     locale) {
         MessageFormatKey key = new MessageFormatKey(pattern, locale);
-        MessageFormat format = null;
-        synchronized (messageFormats) {
-            format = (MessageFormat) messageFormats.get(key);
-            if (format == null) {
-                format = new MessageFormat(pattern);
-                format.setLocale(locale);
-                format.applyPattern(pattern);
-                messageFormats.put(key, format);
+        MessageTemplate format = messageFormats.get(key);
+        if (format == null) {
+            format = MessageTemplate.compile(pattern, locale);
+            MessageTemplate existing = messageFormats.putIfAbsent(key, format);
+            if (existing != null) {
+                format = existing;
             }
         }
 
@@ -740,54 +1036,109 @@ public class LocalizedTextUtil {
     }
 
     /**
-     * Traverse up class hierarchy looking for message.  Looks at class, then implemented interface,
-     * before going up hierarchy.
+     * Finds the message in the class hierarchy or, if <tt>packageHierarchy</tt> is set, in the package hierarchy
+     * of the given class. Where the message was found (or that it was not found) is cached per class, key and
+     * locale, so only the first lookup has to probe the bundles. The cache is bypassed when bundles are reloaded.
+     * <p/>
+     * Indexed keys are cached with their index, as a bundle may define <tt>users[3].name</tt> next to
+     * <tt>users[*].name</tt>, so like the indexed keys the cache stops growing at {@link #MAX_INDEXED_KEYS}
+     * entries.
      */
     private static String findMessage
             (Class
                     clazz, String
                     key, String
                     indexedKey, Locale
-                    locale, Object[] args, Set<String>
-                    checked, ValueStack
+                    locale, Object[] args, boolean
+                    packageHierarchy, ValueStack
                     valueStack) {
-        if (checked == null) {
-            checked = new TreeSet<String>();
-        } else if (checked.contains(clazz.getName())) {
+        MessageLocation location;
+
+        if (reloadBundles) {
+            location = locateMessage(clazz, key, indexedKey, locale, packageHierarchy);
+        } else {
+            MessageLocationKey cacheKey = new MessageLocationKey(clazz, key, locale, packageHierarchy);
+            location = messageLocations.get(cacheKey);
+            if (location == null) {
+                location = locateMessage(clazz, key, indexedKey, locale, packageHierarchy);
+                if (messageLocations.size() < MAX_INDEXED_KEYS) {
+                    messageLocations.put(cacheKey, location);
+                }
+            }
+        }
+
+        if (location == MessageLocation.NOT_FOUND) {
             return null;
         }
 
-        // look in properties of this class
-        String msg = getMessage(clazz.getName(), locale, key, valueStack, args);
+        return getMessage(location.bundleName, locale, location.key, valueStack, args);
+    }
 
-        if (msg != null) {
-            return msg;
+    static int getMessageLocationCount() {
+        return messageLocations.size();
+    }
+
+    private static MessageLocation locateMessage
+            (Class
+                    clazz, String
+                    key, String
+                    indexedKey, Locale
+                    locale, boolean
+                    packageHierarchy) {
+        if (!packageHierarchy) {
+            return findMessageLocation(clazz, key, indexedKey, locale, null);
         }
 
-        if (indexedKey != null) {
-            msg = getMessage(clazz.getName(), locale, indexedKey, valueStack, args);
+        for (Class aClass = clazz;
+             (aClass != null) && !aClass.equals(Object.class);
+             aClass = aClass.getSuperclass()) {
+
+            String basePackageName = aClass.getName();
+            while (basePackageName.lastIndexOf('.') != -1) {
+                basePackageName = basePackageName.substring(0, basePackageName.lastIndexOf('.'));
+                MessageLocation location = findMessageLocation(basePackageName + ".package", key, indexedKey, locale);
 
-            if (msg != null) {
-                return msg;
+                if (location != null) {
+                    return location;
+                }
             }
         }
 
+        return MessageLocation.NOT_FOUND;
+    }
+
+    /**
+     * Traverse up class hierarchy looking for message.  Looks at class, then implemented interface,
+     * before going up hierarchy.
+     */
+    private static MessageLocation findMessageLocation
+            (Class
+                    clazz, String
+                    key, String
+                    indexedKey, Locale
+                    locale, Set<String>
+                    checked) {
+        if (checked == null) {
+            checked = new TreeSet<String>();
+        } else if (checked.contains(clazz.getName())) {
+            return MessageLocation.NOT_FOUND;
+        }
+
+        // look in properties of this class
+        MessageLocation location = findMessageLocation(clazz.getName(), key, indexedKey, locale);
+
+        if (location != null) {
+            return location;
+        }
+
         // look in properties of implemented interfaces
         Class[] interfaces = clazz.getInterfaces();
 
         for (Class anInterface : interfaces) {
-            msg = getMessage(anInterface.getName(), locale, key, valueStack, args);
+            location = findMessageLocation(anInterface.getName(), key, indexedKey, locale);
 
-            if (msg != null) {
-                return msg;
-            }
-
-            if (indexedKey != null) {
-                msg = getMessage(anInterface.getName(), locale, indexedKey, valueStack, args);
-
-                if (msg != null) {
-                    return msg;
-                }
+            if (location != null) {
+                return location;
             }
         }
 
@@ -796,37 +1147,134 @@ public class LocalizedTextUtil {
             interfaces = clazz.getInterfaces();
 
             for (Class anInterface : interfaces) {
-                msg = findMessage(anInterface, key, indexedKey, locale, args, checked, valueStack);
+                location = findMessageLocation(anInterface, key, indexedKey, locale, checked);
 
-                if (msg != null) {
-                    return msg;
+                if (location != MessageLocation.NOT_FOUND) {
+                    return location;
                 }
             }
         } else {
             if (!clazz.equals(Object.class) && !clazz.isPrimitive()) {
-                return findMessage(clazz.getSuperclass(), key, indexedKey, locale, args, checked, valueStack);
+                return findMessageLocation(clazz.getSuperclass(), key, indexedKey, locale, checked);
             }
         }
 
+        return MessageLocation.NOT_FOUND;
+    }
+
+    /**
+     * Looks for the key, then for the indexed key, in the named resource bundle.
+     *
+     * @return the location of the message, or <tt>null</tt> if the bundle has neither key.
+     */
+    private static MessageLocation findMessageLocation
+            (String
+                    bundleName, String
+                    key, String
+                    indexedKey, Locale
+                    locale) {
+        ResourceBundle bundle = findResourceBundle(bundleName, locale);
+        if (bundle == null) {
+            return null;
+        }
+
+        reloadBundles();
+
+        if (containsKey(bundle, key)) {
+            return new MessageLocation(bundleName, key);
+        }
+
+        if ((indexedKey != null) && hasIndexedKeys(bundle) && containsKey(bundle, indexedKey)) {
+            return new MessageLocation(bundleName, indexedKey);
+        }
+
         return null;
     }
 
+    private static boolean containsKey(ResourceBundle bundle, String key) {
+        try {
+            bundle.getString(key);
+            return true;
+        } catch (MissingResourceException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks, at most once per {@link #setReloadCheckInterval(long) interval} and on one thread only, whether the
+     * files of any loaded bundle changed, and drops those bundles so they are loaded again on next use.
+     */
     private static void reloadBundles() {
         if (reloadBundles) {
-            try {
-                clearMap(ResourceBundle.class, null, "cacheList");
+            long now = System.currentTimeMillis();
+            long next = nextReloadCheck.get();
 
-                // now, for the true and utter hack, if we're running in tomcat, clear
-                // it's class loader resource cache as well.
-                clearTomcatCache();
+            if ((now >= next) && nextReloadCheck.compareAndSet(next, now + reloadCheckInterval)) {
+                reloadChangedBundles();
             }
-            catch (Exception e) {
-                LOG.error("Could not reload resource bundles", e);
+        }
+    }
+
+    private static void reloadChangedBundles() {
+        List<String> changed = new ArrayList<String>();
+        for (Map.Entry<String, BundleRevision> entry : bundleRevisions.entrySet()) {
+            if (entry.getValue().needsReloading()) {
+                changed.add(entry.getKey());
             }
         }
+
+        if (changed.isEmpty()) {
+            return;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Reloading resource bundles " + changed);
+        }
+
+        // the JDK and container caches have to go first, or a concurrent lookup could cache the stale bundle again
+        try {
+            clearResourceBundleCache();
+
+            // now, for the true and utter hack, if we're running in tomcat, clear
+            // it's class loader resource cache as well.
+            clearTomcatCache();
+        }
+        catch (Exception e) {
+            LOG.error("Could not reload resource bundles", e);
+        }
+
+        for (String key : changed) {
+            bundleRevisions.remove(key);
+            bundlesMap.remove(key);
+        }
+        messageLocations.clear();
+        defaultBundlesMap.clear();
+        indexedBundles.clear();
     }
 
 
+    /**
+     * Uses <code>ResourceBundle.clearCache(ClassLoader)</code> where the JDK provides it (Java 6 and later), and
+     * clears the JDK's internal cache otherwise.
+     */
+    private static void clearResourceBundleCache() throws Exception {
+        Method clearCache;
+        try {
+            clearCache = ResourceBundle.class.getMethod("clearCache", ClassLoader.class);
+        } catch (NoSuchMethodException e) {
+            clearMap(ResourceBundle.class, null, "cacheList");
+            return;
+        }
+
+        ClassLoader loader = Thread.currentThread().getContextClassLoader();
+        if (loader != null) {
+            clearCache.invoke(null, loader);
+        }
+        if (delegatedClassLoader != null) {
+            clearCache.invoke(null, delegatedClassLoader);
+        }
+    }
+
     private static void clearTomcatCache() {
         ClassLoader loader = Thread.currentThread().getContextClassLoader();
         // no need for compilation here.
@@ -867,6 +1315,70 @@ public class LocalizedTextUtil {
 
     }
 
+    /**
+     * Reports what the bundle caches hold, for diagnostics. The returned map has these entries:
+     * <ul>
+     * <li><tt>bundles</tt> - cached bundles</li>
+     * <li><tt>missingBundles</tt> - cached misses</li>
+     * <li><tt>flattenedBundles</tt> - cached {@link #setFlattenBundles(boolean) flattened} bundles</li>
+     * <li><tt>keyReferences</tt> - keys held by flattened bundles</li>
+     * <li><tt>sharedKeys</tt> - distinct keys held in the key tables shared by flattened bundles</li>
+     * <li><tt>estimatedBytesSaved</tt> - rough estimate of the heap saved by sharing keys across locales,
+     * compared to every bundle holding its own keys</li>
+     * </ul>
+     *
+     * @return the statistics, by name
+     */
+    public static Map<String, Long> getBundleStatistics() {
+        long bundles = 0;
+        long missingBundles = 0;
+        long flattenedBundles = 0;
+        long keyReferences = 0;
+        long unsharedKeyBytes = 0;
+        Map<SharedBundleKeys, Object> tables = new IdentityHashMap<SharedBundleKeys, Object>();
+
+        List<ResourceBundle> cached = new ArrayList<ResourceBundle>(bundlesMap.values());
+        cached.addAll(defaultBundlesMap.values());
+        for (ResourceBundle bundle : cached) {
+            if (bundle == EMPTY_BUNDLE) {
+                missingBundles++;
+                continue;
+            }
+
+            bundles++;
+            if (bundle instanceof FlattenedResourceBundle) {
+                FlattenedResourceBundle flattened = (FlattenedResourceBundle) bundle;
+                flattenedBundles++;
+                keyReferences += flattened.size();
+                unsharedKeyBytes += flattened.estimateKeyBytes() + flattened.size() * MAP_ENTRY_BYTES;
+                tables.put(flattened.getSharedKeys(), null);
+            }
+        }
+
+        long sharedKeys = 0;
+        long sharedKeyBytes = 0;
+        for (SharedBundleKeys table : tables.keySet()) {
+            sharedKeys += table.size();
+            sharedKeyBytes += table.estimateKeyBytes();
+        }
+
+        Map<String, Long> statistics = new LinkedHashMap<String, Long>();
+        statistics.put("bundles", bundles);
+        statistics.put("missingBundles", missingBundles);
+        statistics.put("flattenedBundles", flattenedBundles);
+        statistics.put("keyReferences", keyReferences);
+        statistics.put("sharedKeys", sharedKeys);
+        statistics.put("estimatedBytesSaved", Math.max(0, unsharedKeyBytes - sharedKeyBytes));
+        return Collections.unmodifiableMap(statistics);
+    }
+
+    /**
+     * Rough size of a string on a 64 bit JVM: the object, its character array and their headers.
+     */
+    private static long estimateBytes(String s) {
+        return 40 + 2 * s.length();
+    }
+
     /**
      * Clears all the internal lists.
      */
@@ -875,10 +1387,16 @@ public class LocalizedTextUtil {
         clearDefaultResourceBundles();
 
         bundlesMap.clear();
+        messageLocations.clear();
+        defaultBundlesMap.clear();
+        bundleRevisions.clear();
+        indexedBundles.clear();
 
-        synchronized (messageFormats) {
-            messageFormats.clear();
+        synchronized (sharedBundleKeys) {
+            sharedBundleKeys.clear();
         }
+
+        messageFormats.clear();
     }
 
     static class MessageFormatKey {
@@ -914,6 +1432,57 @@ public class LocalizedTextUtil {
         }
     }
 
+    static class MessageLocationKey {
+        final Class clazz;
+        final String key;
+        final Locale locale;
+        final boolean packageHierarchy;
+
+        MessageLocationKey(Class clazz, String key, Locale locale, boolean packageHierarchy) {
+            this.clazz = clazz;
+            this.key = key;
+            this.locale = locale;
+            this.packageHierarchy = packageHierarchy;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof MessageLocationKey)) return false;
+
+            final MessageLocationKey other = (MessageLocationKey) o;
+
+            return (clazz == other.clazz)
+                    && (packageHierarchy == other.packageHierarchy)
+                    && key.equals(other.key)
+                    && (locale != null ? locale.equals(other.locale) : other.locale == null);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = clazz.hashCode();
+            result = 29 * result + key.hashCode();
+            result = 29 * result + (locale != null ? locale.hashCode() : 0);
+            result = 29 * result + (packageHierarchy ? 1 : 0);
+            return result;
+        }
+    }
+
+    /**
+     * The bundle and key a message was found with.
+     */
+    static class MessageLocation {
+        static final MessageLocation NOT_FOUND = new MessageLocation(null, null);
+
+        final String bundleName;
+        final String key;
+
+        MessageLocation(String bundleName, String key) {
+            this.bundleName = bundleName;
+            this.key = key;
+        }
+    }
+
     static class GetDefaultMessageReturnArg {
         String message;
         boolean foundInBundle;
@@ -924,6 +1493,248 @@ public class LocalizedTextUtil {
         }
     }
 
+    /**
+     * An immutable open-addressing table of the keys of all flattened bundles sharing a base name. The table is
+     * kept at most half full, so most keys are found in a single probe.
+     */
+    static class SharedBundleKeys {
+        private final String[] keys;
+        private final int mask;
+        private final int size;
+        private final boolean indexedKeys;
+
+        /**
+         * Creates a table holding the keys of the previous table, whose instances are reused, and the new keys.
+         */
+        SharedBundleKeys(SharedBundleKeys previous, Collection<String> newKeys) {
+            List<String> allKeys = new ArrayList<String>();
+            if (previous != null) {
+                for (String key : previous.keys) {
+                    if (key != null) {
+                        allKeys.add(key);
+                    }
+                }
+            }
+            for (String key : newKeys) {
+                if ((previous == null) || (previous.indexOf(key) < 0)) {
+                    allKeys.add(key);
+                }
+            }
+
+            int capacity = 2;
+            while (capacity < allKeys.size() * 2) {
+                capacity <<= 1;
+            }
+            keys = new String[capacity];
+            mask = capacity - 1;
+            size = allKeys.size();
+
+            boolean indexed = false;
+            for (String key : allKeys) {
+                indexed |= (key.indexOf("[*]") != -1);
+                int i = indexFor(key);
+                while (keys[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+            }
+            indexedKeys = indexed;
+        }
+
+        private int indexFor(String key) {
+            int h = key.hashCode();
+            h ^= (h >>> 16);
+            return h & mask;
+        }
+
+        /**
+         * @return the slot of the key, or <tt>-1</tt> if the table does not hold it.
+         */
+        int indexOf(String key) {
+            for (int i = indexFor(key); keys[i] != null; i = (i + 1) & mask) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        boolean containsAll(Collection<String> keys) {
+            for (String key : keys) {
+                if (indexOf(key) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        String keyAt(int index) {
+            return keys[index];
+        }
+
+        int capacity() {
+            return keys.length;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean hasIndexedKeys() {
+            return indexedKeys;
+        }
+
+        long estimateKeyBytes() {
+            long bytes = 0;
+            for (String key : keys) {
+                if (key != null) {
+                    bytes += estimateBytes(key);
+                }
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * An immutable bundle holding the entries of a bundle and its parents. The keys live in a table shared by all
+     * locales of the bundle, the bundle only holds the values, in the slots of their keys.
+     */
+    static class FlattenedResourceBundle extends ResourceBundle {
+        private final Locale locale;
+        private final SharedBundleKeys keys;
+        private final Object[] values;
+        private final int size;
+
+        FlattenedResourceBundle(SharedBundleKeys keys, Map<String, Object> entries, Locale locale) {
+            this.locale = locale;
+            this.keys = keys;
+            this.values = new Object[keys.capacity()];
+            this.size = entries.size();
+
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                values[keys.indexOf(entry.getKey())] = entry.getValue();
+            }
+        }
+
+        boolean hasIndexedKeys() {
+            return keys.hasIndexedKeys();
+        }
+
+        SharedBundleKeys getSharedKeys() {
+            return keys;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long estimateKeyBytes() {
+            long bytes = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    bytes += estimateBytes(keys.keyAt(i));
+                }
+            }
+            return bytes;
+        }
+
+        @Override
+        protected Object handleGetObject(String key) {
+            if (key == null) {
+                return null;
+            }
+
+            int i = keys.indexOf(key);
+            return (i < 0) ? null : values[i];
+        }
+
+        @Override
+        public Enumeration<String> getKeys() {
+            List<String> keyList = new ArrayList<String>(size);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    keyList.add(keys.keyAt(i));
+                }
+            }
+            return Collections.enumeration(keyList);
+        }
+
+        @Override
+        public Locale getLocale() {
+            return locale;
+        }
+    }
+
+    /**
+     * The modification times of the <tt>.properties</tt> files a bundle was loaded from. Files inside jars are
+     * not tracked.
+     */
+    static class BundleRevision {
+        private final File[] files;
+        private final long[] lastModified;
+
+        private BundleRevision(List<File> files) {
+            this.files = files.toArray(new File[files.size()]);
+            this.lastModified = new long[this.files.length];
+            for (int i = 0; i < this.files.length; i++) {
+                lastModified[i] = this.files[i].lastModified();
+            }
+        }
+
+        boolean needsReloading() {
+            for (int i = 0; i < files.length; i++) {
+                if (files[i].lastModified() != lastModified[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static BundleRevision build(String bundleName, Locale locale) {
+            String baseName = bundleName.replace('.', '/');
+            List<String> candidates = new ArrayList<String>();
+            candidates.add(baseName);
+            if (locale.getLanguage().length() > 0) {
+                candidates.add(baseName + "_" + locale.getLanguage());
+            }
+            if (locale.getCountry().length() > 0) {
+                candidates.add(baseName + "_" + locale.getLanguage() + "_" + locale.getCountry());
+            }
+            if (locale.getVariant().length() > 0) {
+                candidates.add(baseName + "_" + locale.getLanguage() + "_" + locale.getCountry() + "_" + locale.getVariant());
+            }
+
+            List<File> files = new ArrayList<File>();
+            for (String candidate : candidates) {
+                File file = findFile(candidate + ".properties");
+                if (file != null) {
+                    files.add(file);
+                }
+            }
+            return new BundleRevision(files);
+        }
+
+        private static File findFile(String resourceName) {
+            URL url = null;
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            if (loader != null) {
+                url = loader.getResource(resourceName);
+            }
+            if ((url == null) && (delegatedClassLoader != null)) {
+                url = delegatedClassLoader.getResource(resourceName);
+            }
+            if ((url == null) || !"file".equals(url.getProtocol())) {
+                return null;
+            }
+
+            try {
+                return new File(url.toURI());
+            } catch (URISyntaxException e) {
+                return new File(url.getPath());
+            }
+        }
+    }
+
     private static class EmptyResourceBundle extends ResourceBundle {
         @Override
         public Enumeration<String> getKeys() {
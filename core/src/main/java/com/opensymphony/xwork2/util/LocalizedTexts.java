@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2.util;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * An immutable, sorted map of message keys to the unformatted messages found for them, as returned by
+ * {@link LocalizedTextUtil#findTexts(Class, java.util.Collection, Locale)} and
+ * {@link LocalizedTextUtil#findTexts(Class, String, Locale)}.
+ * <p/>
+ * The {@link #getVersion() version} is derived from the locale and the texts only, so it can be used as an
+ * HTTP entity tag: it is the same for equal texts, in any JVM, and changes whenever a text does.
+ *
+ * @see LocalizedTextUtil
+ */
+public final class LocalizedTexts extends AbstractMap<String, String> {
+
+    private final Locale locale;
+    private final SortedMap<String, String> texts;
+    private final String version;
+
+    LocalizedTexts(Locale locale, Map<String, String> texts) {
+        this.locale = locale;
+        this.texts = Collections.unmodifiableSortedMap(new TreeMap<String, String>(texts));
+        this.version = buildVersion(locale, this.texts);
+    }
+
+    private static String buildVersion(Locale locale, SortedMap<String, String> texts) {
+        long hash = String.valueOf(locale).hashCode();
+        for (Map.Entry<String, String> entry : texts.entrySet()) {
+            hash = 31 * hash + entry.getKey().hashCode();
+            hash = 31 * hash + entry.getValue().hashCode();
+        }
+        return Long.toHexString(hash) + "-" + Integer.toHexString(texts.size());
+    }
+
+    /**
+     * @return the locale the texts were looked up for.
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * @return a version string that changes whenever the locale or any of the texts does.
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return texts.entrySet();
+    }
+
+    @Override
+    public String get(Object key) {
+        return texts.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return texts.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return texts.size();
+    }
+
+}
@@ -0,0 +1,152 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2.util;
+
+import java.text.DateFormat;
+import java.text.MessageFormat;
+import java.text.NumberFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * An immutable, precompiled message pattern that produces the same output as {@link MessageFormat} for the
+ * same pattern and locale, but can be shared between threads without locking.
+ * <p/>
+ * Patterns without any <code>{</code>, <code>}</code> or <code>'</code> are returned as is, and patterns that only
+ * use plain <code>{n}</code> placeholders are formatted by simple substitution. Anything else (quoting, format
+ * types and styles) is handed to a private copy of a parsed {@link MessageFormat}.
+ *
+ * @see LocalizedTextUtil
+ */
+public final class MessageTemplate {
+
+    private final Locale locale;
+    private final String text;
+    private final String[] literals;
+    private final int[] indexes;
+    private final MessageFormat format;
+
+    private MessageTemplate(Locale locale, String text, String[] literals, int[] indexes, MessageFormat format) {
+        this.locale = locale;
+        this.text = text;
+        this.literals = literals;
+        this.indexes = indexes;
+        this.format = format;
+    }
+
+    /**
+     * Parses the pattern for the given locale.
+     *
+     * @param pattern the {@link MessageFormat} pattern
+     * @param locale  the locale used to format number and date arguments
+     * @return the compiled template
+     * @throws IllegalArgumentException if the pattern is invalid
+     */
+    public static MessageTemplate compile(String pattern, Locale locale) {
+        if (pattern.indexOf('{') == -1 && pattern.indexOf('}') == -1 && pattern.indexOf('\'') == -1) {
+            return new MessageTemplate(locale, pattern, null, null, null);
+        }
+
+        if (pattern.indexOf('\'') == -1) {
+            MessageTemplate template = compileSimple(pattern, locale);
+            if (template != null) {
+                return template;
+            }
+        }
+
+        MessageFormat format = new MessageFormat(pattern);
+        format.setLocale(locale);
+        format.applyPattern(pattern);
+        return new MessageTemplate(locale, null, null, null, format);
+    }
+
+    /**
+     * Splits a pattern made of literal text and <code>{n}</code> placeholders, or returns <tt>null</tt> if the
+     * pattern uses anything else.
+     */
+    private static MessageTemplate compileSimple(String pattern, Locale locale) {
+        List<String> literals = new ArrayList<String>();
+        List<Integer> indexes = new ArrayList<Integer>();
+        int start = 0;
+        int length = pattern.length();
+
+        while (true) {
+            int open = pattern.indexOf('{', start);
+            int end = open == -1 ? length : open;
+            int stray = pattern.indexOf('}', start);
+            if (stray != -1 && stray < end) {
+                return null;
+            }
+            literals.add(pattern.substring(start, end));
+            if (open == -1) {
+                break;
+            }
+
+            int close = pattern.indexOf('}', open);
+            if (close == -1 || close == open + 1 || close - open > 10) {
+                return null;
+            }
+            for (int i = open + 1; i < close; i++) {
+                char c = pattern.charAt(i);
+                if (c < '0' || c > '9') {
+                    return null;
+                }
+            }
+            indexes.add(Integer.valueOf(pattern.substring(open + 1, close)));
+            start = close + 1;
+        }
+
+        int[] indexArray = new int[indexes.size()];
+        for (int i = 0; i < indexArray.length; i++) {
+            indexArray[i] = indexes.get(i);
+        }
+        return new MessageTemplate(locale, null, literals.toArray(new String[literals.size()]), indexArray, null);
+    }
+
+    /**
+     * Formats the message with the given arguments, like {@link MessageFormat#format(Object)}.
+     *
+     * @param args the arguments, may be <tt>null</tt>
+     * @return the formatted message
+     */
+    public String format(Object[] args) {
+        if (text != null) {
+            return text;
+        }
+
+        if (format != null) {
+            return ((MessageFormat) format.clone()).format(args);
+        }
+
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < indexes.length; i++) {
+            sb.append(literals[i]);
+            int index = indexes[i];
+            if (args == null || index >= args.length) {
+                sb.append('{').append(index).append('}');
+            } else {
+                sb.append(formatArgument(args[index]));
+            }
+        }
+        sb.append(literals[indexes.length]);
+        return sb.toString();
+    }
+
+    private String formatArgument(Object arg) {
+        if (arg == null) {
+            return "null";
+        } else if (arg instanceof String) {
+            return (String) arg;
+        } else if (arg instanceof Number) {
+            return NumberFormat.getInstance(locale).format(arg);
+        } else if (arg instanceof Date) {
+            return DateFormat.getDateTimeInstance(DateFormat.SHORT, DateFormat.SHORT, locale).format(arg);
+        }
+        return arg.toString();
+    }
+
+}
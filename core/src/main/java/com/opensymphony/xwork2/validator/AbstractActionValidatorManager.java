@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2.validator;
+
+import com.opensymphony.xwork2.ActionContext;
+import com.opensymphony.xwork2.LocaleProvider;
+import com.opensymphony.xwork2.ValidationAwareSupport;
+import com.opensymphony.xwork2.util.ValueStack;
+import com.opensymphony.xwork2.util.logging.Logger;
+import com.opensymphony.xwork2.util.logging.LoggerFactory;
+import com.opensymphony.xwork2.validator.validators.VisitorFieldValidator;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Runs validators for the regular and the annotation based validator managers, which only differ in how they
+ * find the validators of a class.
+ */
+public abstract class AbstractActionValidatorManager implements BatchActionValidatorManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AbstractActionValidatorManager.class);
+
+    public List<ValidatorContext> validateAll(Collection<?> objects, String context) throws ValidationException {
+        Object[] array = objects.toArray();
+        ValidatorContext[] validatorContexts = new ValidatorContext[array.length];
+
+        for (int i = 0; i < array.length; i++) {
+            if (array[i] != null) {
+                LocaleProvider localeProvider = DelegatingValidatorContext.makeLocaleProvider(array[i]);
+                validatorContexts[i] = new DelegatingValidatorContext(new ValidationAwareSupport(),
+                        DelegatingValidatorContext.makeTextProvider(array[i], localeProvider), localeProvider);
+            }
+        }
+
+        validateAll(array, context, validatorContexts);
+        return Arrays.asList(validatorContexts);
+    }
+
+    public void validateAll(Object[] objects, String context, ValidatorContext[] validatorContexts) throws ValidationException {
+        ValueStack stack = ActionContext.getContext().getValueStack();
+        Class validatedClass = null;
+        List<Validator> validators = null;
+
+        for (int i = 0; i < objects.length; i++) {
+            Object object = objects[i];
+            if (object == null) {
+                continue;
+            }
+
+            // the validator plan is shared by consecutive objects of the same class
+            if (object.getClass() != validatedClass) {
+                validatedClass = object.getClass();
+                validators = getValidators(validatedClass, context, null);
+            }
+
+            stack.push(object);
+            try {
+                runValidators(object, validators, validatorContexts[i], null);
+            } finally {
+                stack.pop();
+            }
+        }
+    }
+
+    /**
+     * Runs the given validators against an object, honouring short-circuiting.
+     *
+     * @param object the object to validate.
+     * @param validators the validators to run, as returned by {@link #getValidators(Class, String, String)}.
+     * @param validatorContext the validation context to report errors to.
+     * @param method the name of the method being invoked on the action - can be <tt>null</tt>.
+     * @throws ValidationException if an error happens when validating the object.
+     */
+    protected void runValidators(Object object, List<Validator> validators, ValidatorContext validatorContext, String method) throws ValidationException {
+        Set<String> shortcircuitedFields = null;
+
+        for (final Validator validator : validators) {
+            try {
+                validator.setValidatorContext(validatorContext);
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Running validator: " + validator + " for object " + object + " and method " + method);
+                }
+
+                FieldValidator fValidator = null;
+                String fullFieldName = null;
+                boolean shortCircuit = (validator instanceof ShortCircuitableValidator) && ((ShortCircuitableValidator) validator).isShortCircuit();
+
+                if (validator instanceof FieldValidator) {
+                    fValidator = (FieldValidator) validator;
+
+                    // the full field name is only needed to keep track of short-circuited fields
+                    if (shortCircuit || (shortcircuitedFields != null)) {
+                        fullFieldName = getFullFieldName(validatorContext, fValidator.getFieldName());
+                    }
+
+                    if ((shortcircuitedFields != null) && shortcircuitedFields.contains(fullFieldName)) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Short-circuited, skipping");
+                        }
+
+                        continue;
+                    }
+                }
+
+                if (shortCircuit) {
+                    // errors are only ever added, so comparing the number of errors is enough to spot new ones
+                    int errs = (fValidator != null) ? countFieldErrors(validatorContext, fullFieldName) : countActionErrors(validatorContext);
+
+                    validator.validate(object);
+
+                    if (fValidator != null) {
+                        if (countFieldErrors(validatorContext, fullFieldName) != errs) {
+                            if (LOG.isDebugEnabled()) {
+                                LOG.debug("Short-circuiting on field validation");
+                            }
+
+                            if (shortcircuitedFields == null) {
+                                shortcircuitedFields = new TreeSet<String>();
+                            }
+
+                            shortcircuitedFields.add(fullFieldName);
+                        }
+                    } else if (countActionErrors(validatorContext) != errs) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Short-circuiting");
+                        }
+
+                        break;
+                    }
+
+                    continue;
+                }
+
+                validator.validate(object);
+            } finally {
+                validator.setValidatorContext(null);
+            }
+        }
+    }
+
+    /**
+     * Returns the full field name used to register errors of a field, consulting the parent of nested
+     * visitor contexts (see {@link VisitorFieldValidator.AppendingValidatorContext#getFullFieldNameFromParent(String)}).
+     */
+    private static String getFullFieldName(ValidatorContext validatorContext, String fieldName) {
+        if (validatorContext instanceof VisitorFieldValidator.AppendingValidatorContext) {
+            VisitorFieldValidator.AppendingValidatorContext appendingValidatorContext =
+                    (VisitorFieldValidator.AppendingValidatorContext) validatorContext;
+            return appendingValidatorContext.getFullFieldNameFromParent(fieldName);
+        }
+        return validatorContext.getFullFieldName(fieldName);
+    }
+
+    private static int countFieldErrors(ValidatorContext validatorContext, String fullFieldName) {
+        if (!validatorContext.hasFieldErrors()) {
+            return 0;
+        }
+        Collection<String> fieldErrors = validatorContext.getFieldErrors().get(fullFieldName);
+        return (fieldErrors == null) ? 0 : fieldErrors.size();
+    }
+
+    private static int countActionErrors(ValidatorContext validatorContext) {
+        if (!validatorContext.hasActionErrors()) {
+            return 0;
+        }
+        Collection<String> actionErrors = validatorContext.getActionErrors();
+        return (actionErrors == null) ? 0 : actionErrors.size();
+    }
+}
@@ -18,6 +18,8 @@ import com.opensymphony.xwork2.validator.validators.VisitorFieldValidator;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * AnnotationActionValidatorManager is the entry point into XWork's annotations-based validator framework.
@@ -26,7 +28,7 @@ import java.util.*;
  * @author Rainer Hermanns
  * @author jepjep
  */
-public class AnnotationActionValidatorManager implements ActionValidatorManager {
+public class AnnotationActionValidatorManager extends AbstractActionValidatorManager {
 
     /**
      * The file suffix for any validation file.
@@ -35,6 +37,7 @@ public class AnnotationActionValidatorManager implements ActionValidatorManager
 
     private final Map<String, List<ValidatorConfig>> validatorCache = Collections.synchronizedMap(new HashMap<String, List<ValidatorConfig>>());
     private final Map<String, List<ValidatorConfig>> validatorFileCache = Collections.synchronizedMap(new HashMap<String, List<ValidatorConfig>>());
+    private final ConcurrentMap<Class, List<ValidatorConfig>> annotationConfigCache = new ConcurrentHashMap<Class, List<ValidatorConfig>>();
     private static final Logger LOG = LoggerFactory.getLogger(AnnotationActionValidatorManager.class);
 
     private ValidatorFactory validatorFactory;
@@ -50,19 +53,24 @@ public class AnnotationActionValidatorManager implements ActionValidatorManager
         this.validatorFileParser = parser;
     }
 
-    public synchronized List<Validator> getValidators(Class clazz, String context) {
+    public List<Validator> getValidators(Class clazz, String context) {
         return getValidators(clazz, context, null);
     }
 
-    public synchronized List<Validator> getValidators(Class clazz, String context, String method) {
+    public List<Validator> getValidators(Class clazz, String context, String method) {
         final String validatorKey = buildValidatorKey(clazz);
 
-        if (validatorCache.containsKey(validatorKey)) {
-            if (FileManager.isReloadingConfigs()) {
-                validatorCache.put(validatorKey, buildValidatorConfigs(clazz, context, true, null));
+        // only building or reloading the configs needs the lock, cached configs are read without it
+        if (FileManager.isReloadingConfigs() || !validatorCache.containsKey(validatorKey)) {
+            synchronized (validatorCache) {
+                if (validatorCache.containsKey(validatorKey)) {
+                    if (FileManager.isReloadingConfigs()) {
+                        validatorCache.put(validatorKey, buildValidatorConfigs(clazz, context, true, null));
+                    }
+                } else {
+                    validatorCache.put(validatorKey, buildValidatorConfigs(clazz, context, false, null));
+                }
             }
-        } else {
-            validatorCache.put(validatorKey, buildValidatorConfigs(clazz, context, false, null));
         }
 
         // get the set of validator configs
@@ -102,92 +110,7 @@ public class AnnotationActionValidatorManager implements ActionValidatorManager
 
     public void validate(Object object, String context, ValidatorContext validatorContext, String method) throws ValidationException {
         List<Validator> validators = getValidators(object.getClass(), context, method);
-        Set<String> shortcircuitedFields = null;
-
-        for (final Validator validator: validators) {
-            try {
-                validator.setValidatorContext(validatorContext);
-
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Running validator: " + validator + " for object " + object + " and method " + method);
-                }
-
-                FieldValidator fValidator = null;
-                String fullFieldName = null;
-
-                if (validator instanceof FieldValidator) {
-                    fValidator = (FieldValidator) validator;
-                    fullFieldName = new InternalValidatorContextWrapper(fValidator.getValidatorContext()).getFullFieldName(fValidator.getFieldName());
-
-                    if ((shortcircuitedFields != null) && shortcircuitedFields.contains(fullFieldName)) {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Short-circuited, skipping");
-                        }
-
-                        continue;
-                    }
-                }
-
-                if (validator instanceof ShortCircuitableValidator && ((ShortCircuitableValidator) validator).isShortCircuit())
-                {
-                    // get number of existing errors
-                    List<String> errs = null;
-
-                    if (fValidator != null) {
-                        if (validatorContext.hasFieldErrors()) {
-                            Collection<String> fieldErrors = validatorContext.getFieldErrors().get(fullFieldName);
-
-                            if (fieldErrors != null) {
-                                errs = new ArrayList<String>(fieldErrors);
-                            }
-                        }
-                    } else if (validatorContext.hasActionErrors()) {
-                        Collection<String> actionErrors = validatorContext.getActionErrors();
-
-                        if (actionErrors != null) {
-                            errs = new ArrayList<String>(actionErrors);
-                        }
-                    }
-
-                    validator.validate(object);
-
-                    if (fValidator != null) {
-                        if (validatorContext.hasFieldErrors()) {
-                            Collection<String> errCol = validatorContext.getFieldErrors().get(fullFieldName);
-
-                            if ((errCol != null) && !errCol.equals(errs)) {
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.debug("Short-circuiting on field validation");
-                                }
-
-                                if (shortcircuitedFields == null) {
-                                    shortcircuitedFields = new TreeSet<String>();
-                                }
-
-                                shortcircuitedFields.add(fullFieldName);
-                            }
-                        }
-                    } else if (validatorContext.hasActionErrors()) {
-                        Collection<String> errCol = validatorContext.getActionErrors();
-
-                        if ((errCol != null) && !errCol.equals(errs)) {
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Short-circuiting");
-                            }
-
-                            break;
-                        }
-                    }
-
-                    continue;
-                }
-
-                validator.validate(object);
-            } finally {
-                validator.setValidatorContext( null );
-            }
-
-        }
+        runValidators(object, validators, validatorContext, method);
     }
 
     /**
@@ -224,14 +147,30 @@ public class AnnotationActionValidatorManager implements ActionValidatorManager
 
         List<ValidatorConfig> result = new ArrayList<ValidatorConfig>(loadFile(fileName, aClass, checkFile));
 
-        AnnotationValidationConfigurationBuilder builder = new AnnotationValidationConfigurationBuilder(validatorFactory);
+        result.addAll(buildAnnotationClassValidatorConfigs(aClass));
 
-        List<ValidatorConfig> annotationResult = new ArrayList<ValidatorConfig>(builder.buildAnnotationClassValidatorConfigs(aClass));
+        return result;
 
-        result.addAll(annotationResult);
+    }
 
-        return result;
+    /**
+     * Returns the validator configs declared by annotations on the given class. Annotations cannot change
+     * without loading a new class, so the configs are scanned once per class and shared by all actions
+     * and contexts using it.
+     *
+     * @param aClass the class to scan.
+     * @return the annotation-derived validator configs of the class.
+     */
+    protected List<ValidatorConfig> buildAnnotationClassValidatorConfigs(Class aClass) {
+        List<ValidatorConfig> annotationResult = annotationConfigCache.get(aClass);
+
+        if (annotationResult == null) {
+            AnnotationValidationConfigurationBuilder builder = new AnnotationValidationConfigurationBuilder(validatorFactory);
+            annotationResult = Collections.unmodifiableList(builder.buildAnnotationClassValidatorConfigs(aClass));
+            annotationConfigCache.put(aClass, annotationResult);
+        }
 
+        return annotationResult;
     }
 
     /**
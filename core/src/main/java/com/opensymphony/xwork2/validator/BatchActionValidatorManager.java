@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2.validator;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An {@link ActionValidatorManager} that can validate many objects at once, looking up the validators of a class
+ * only once. Optional: callers such as the {@link com.opensymphony.xwork2.validator.validators.VisitorFieldValidator}
+ * validate object by object when the configured manager doesn't implement it.
+ */
+public interface BatchActionValidatorManager extends ActionValidatorManager {
+
+    /**
+     * Validates each object of a collection, looking up the validators of a class only once for all objects
+     * of that class. Each object gets its own validation context, so errors are reported per element
+     * instead of on the objects themselves.
+     *
+     * @param objects the objects to validate, usually all of the same class.
+     * @param context the validation context name - can be <tt>null</tt>.
+     * @return one validation context per object, in iteration order, holding that object's field and action
+     *         errors (<tt>null</tt> for <tt>null</tt> elements).
+     * @throws ValidationException if an error happens when validating the objects.
+     */
+    List<ValidatorContext> validateAll(Collection<?> objects, String context) throws ValidationException;
+
+    /**
+     * Validates each element of an array with the validation context at the same index, looking up the
+     * validators of a class only once for all elements of that class. <tt>null</tt> elements are skipped.
+     *
+     * @param objects the objects to validate, usually all of the same class.
+     * @param context the validation context name - can be <tt>null</tt>.
+     * @param validatorContexts the validation contexts to use, one per element of <tt>objects</tt>.
+     * @throws ValidationException if an error happens when validating the objects.
+     */
+    void validateAll(Object[] objects, String context, ValidatorContext[] validatorContexts) throws ValidationException;
+}
@@ -5,16 +5,35 @@
 package com.opensymphony.xwork2.validator;
 
 import com.opensymphony.xwork2.ActionContext;
+import com.opensymphony.xwork2.LocaleProvider;
+import com.opensymphony.xwork2.TextProvider;
+import com.opensymphony.xwork2.ValidationAwareSupport;
 import com.opensymphony.xwork2.inject.Inject;
 import com.opensymphony.xwork2.util.FileManager;
 import com.opensymphony.xwork2.util.ValueStack;
+import com.opensymphony.xwork2.util.ValueStackFactory;
 import com.opensymphony.xwork2.util.logging.Logger;
 import com.opensymphony.xwork2.util.logging.LoggerFactory;
 import com.opensymphony.xwork2.validator.validators.VisitorFieldValidator;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -30,16 +49,43 @@ import java.util.*;
  * @author James House
  * @author Rainer Hermanns
  */
-public class DefaultActionValidatorManager implements ActionValidatorManager {
+public class DefaultActionValidatorManager extends AbstractActionValidatorManager {
 
     /** The file suffix for any validation file. */
     protected static final String VALIDATION_CONFIG_SUFFIX = "-validation.xml";
 
+    /** The constant holding the number of threads used to run independent field validators concurrently. */
+    public static final String PARALLEL_THREADS_CONFIG_KEY = "xwork.validation.parallelThreads";
+
+    /** The constant holding the number of validators an object needs before they are run concurrently. */
+    public static final String PARALLEL_MIN_VALIDATORS_CONFIG_KEY = "xwork.validation.parallelMinValidators";
+
+    /**
+     * Below this number of validators, copying the value stack for each group costs more than running the groups
+     * concurrently saves.
+     */
+    static final int DEFAULT_PARALLEL_MIN_VALIDATORS = 8;
+
+    /** Seconds an idle thread of the parallel validation pool is kept. */
+    private static final long PARALLEL_THREAD_KEEP_ALIVE = 60;
+
+    /** Queued on the calling thread when a parallel validation task is finished. */
+    private static final Runnable TASK_DONE = new Runnable() {
+        public void run() {
+        }
+    };
+
+    /** Marks threads running a parallel validation task, nested validations on them run serially. */
+    private static final ThreadLocal<Boolean> parallelTask = new ThreadLocal<Boolean>();
+
     private final Map<String, List<ValidatorConfig>> validatorCache = Collections.synchronizedMap(new HashMap<String, List<ValidatorConfig>>());
     private final Map<String, List<ValidatorConfig>> validatorFileCache = Collections.synchronizedMap(new HashMap<String, List<ValidatorConfig>>());
     private final Logger LOG = LoggerFactory.getLogger(DefaultActionValidatorManager.class);
     private ValidatorFactory validatorFactory;
     private ValidatorFileParser validatorFileParser;
+    private ValueStackFactory valueStackFactory;
+    private ExecutorService executor;
+    private int parallelMinValidators = DEFAULT_PARALLEL_MIN_VALIDATORS;
 
     @Inject
     public void setValidatorFileParser(ValidatorFileParser parser) {
@@ -51,6 +97,70 @@ public class DefaultActionValidatorManager implements ActionValidatorManager {
         this.validatorFactory = fac;
     }
 
+    @Inject
+    public void setValueStackFactory(ValueStackFactory valueStackFactory) {
+        this.valueStackFactory = valueStackFactory;
+    }
+
+    /**
+     * Enables running the validators of different fields concurrently, using a pool of up to the given number of
+     * daemon threads. Idle threads end after a minute, so the pool of a manager dropped by a configuration reload
+     * holds no threads; when all threads are busy, the calling thread runs the validators itself. Parallel
+     * validation is disabled by default, and an invalid value leaves it disabled.
+     *
+     * @param threads the number of threads, <tt>0</tt> disables parallel validation.
+     */
+    @Inject(value = PARALLEL_THREADS_CONFIG_KEY, required = false)
+    public void setParallelThreads(String threads) {
+        int count = 0;
+        try {
+            count = Integer.parseInt(threads.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value [#0] for #1, validating serially", threads, PARALLEL_THREADS_CONFIG_KEY);
+        }
+
+        ExecutorService pool = null;
+        if (count > 0) {
+            pool = new ThreadPoolExecutor(0, count, PARALLEL_THREAD_KEEP_ALIVE, TimeUnit.SECONDS,
+                    new SynchronousQueue<Runnable>(), new ValidationThreadFactory(), new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        setExecutor(pool);
+    }
+
+    /**
+     * Sets the minimum number of validators an object needs before they are run concurrently, fewer validators
+     * always run serially. Defaults to {@value #DEFAULT_PARALLEL_MIN_VALIDATORS}.
+     *
+     * @param validators the minimum number of validators.
+     */
+    @Inject(value = PARALLEL_MIN_VALIDATORS_CONFIG_KEY, required = false)
+    public void setParallelMinValidators(String validators) {
+        try {
+            parallelMinValidators = Integer.parseInt(validators.trim());
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value [#0] for #1, keeping #2", validators, PARALLEL_MIN_VALIDATORS_CONFIG_KEY,
+                    String.valueOf(parallelMinValidators));
+        }
+    }
+
+    /**
+     * Sets the executor used to run the validators of different fields concurrently, <tt>null</tt> runs all
+     * validators serially (the default). The previous executor, if any, is shut down.
+     * <p/>
+     * Validators of the same field keep their order, and the validators of all fields run serially whenever an
+     * action-level validator short-circuits. Errors are reported to the validation context in the same order as
+     * a serial run would.
+     *
+     * @param executor the executor to use, or <tt>null</tt>.
+     */
+    public synchronized void setExecutor(ExecutorService executor) {
+        ExecutorService previous = this.executor;
+        this.executor = executor;
+        if ((previous != null) && (previous != executor)) {
+            previous.shutdown();
+        }
+    }
+
     public synchronized List<Validator> getValidators(Class clazz, String context) {
         return getValidators(clazz, context, null);
     }
@@ -98,98 +208,224 @@ public class DefaultActionValidatorManager implements ActionValidatorManager {
 
     public void validate(Object object, String context, ValidatorContext validatorContext, String method) throws ValidationException {
         List<Validator> validators = getValidators(object.getClass(), context, method);
-        Set<String> shortcircuitedFields = null;
+        runValidators(object, validators, validatorContext, method);
+    }
 
-        for (final Validator validator : validators) {
-        try {
-                validator.setValidatorContext(validatorContext);
+    /**
+     * Runs the validators of different fields concurrently when an executor is set and there are enough
+     * validators, serially otherwise.
+     */
+    @Override
+    protected void runValidators(Object object, List<Validator> validators, ValidatorContext validatorContext, String method) throws ValidationException {
+        ExecutorService executor = this.executor;
+        if ((executor != null) && (validators.size() >= parallelMinValidators) && (parallelTask.get() == null)
+                && (valueStackFactory != null) && !(validatorContext instanceof VisitorFieldValidator.AppendingValidatorContext)) {
+            List<List<Integer>> groups = groupIndependentValidators(validators);
+
+            if ((groups != null) && (groups.size() > 1)) {
+                runValidatorsInParallel(executor, object, validators, groups, validatorContext, method);
+                return;
+            }
+        }
+
+        super.runValidators(object, validators, validatorContext, method);
+    }
+
+    /**
+     * Splits the validators into groups which can run independently of each other: one group per field, in
+     * the order of the first validator of each field, and one group per action-level validator.
+     *
+     * @return the indexes of the validators of each group, or <tt>null</tt> if the validators must run serially
+     *         because an action-level validator short-circuits all following validators.
+     */
+    private List<List<Integer>> groupIndependentValidators(List<Validator> validators) {
+        List<List<Integer>> groups = new ArrayList<List<Integer>>();
+        Map<String, List<Integer>> fieldGroups = new HashMap<String, List<Integer>>();
+
+        for (int i = 0; i < validators.size(); i++) {
+            Validator validator = validators.get(i);
 
-                if (LOG.isDebugEnabled()) {
-                    LOG.debug("Running validator: " + validator + " for object " + object + " and method " + method);
+            if (validator instanceof FieldValidator) {
+                String fieldName = ((FieldValidator) validator).getFieldName();
+                List<Integer> group = fieldGroups.get(fieldName);
+
+                if (group == null) {
+                    group = new ArrayList<Integer>();
+                    fieldGroups.put(fieldName, group);
+                    groups.add(group);
                 }
 
-                FieldValidator fValidator = null;
-                String fullFieldName = null;
+                group.add(i);
+            } else if ((validator instanceof ShortCircuitableValidator) && ((ShortCircuitableValidator) validator).isShortCircuit()) {
+                return null;
+            } else {
+                groups.add(Collections.singletonList(i));
+            }
+        }
 
-                if (validator instanceof FieldValidator) {
-                    fValidator = (FieldValidator) validator;
-                    fullFieldName = new InternalValidatorContextWrapper(fValidator.getValidatorContext()).getFullFieldName(fValidator.getFieldName());
+        return groups;
+    }
 
-                    // This is pretty crap, but needed to support short-circuited validations on nested visited objects
-                    if (validatorContext instanceof VisitorFieldValidator.AppendingValidatorContext) {
-                        VisitorFieldValidator.AppendingValidatorContext appendingValidatorContext =
-                                (VisitorFieldValidator.AppendingValidatorContext) validatorContext;
-                        fullFieldName = appendingValidatorContext.getFullFieldNameFromParent(fValidator.getFieldName());
-                    }
+    /**
+     * Runs each group of validators as a task of the executor, on a copy of the current value stack, and
+     * replays the errors recorded by the tasks into the validation context in validator order.
+     * <p/>
+     * The validation context is not thread-safe: its locale is resolved up front, and the text lookups of the
+     * tasks are handed to the calling thread, which runs them while it waits for the tasks.
+     */
+    private void runValidatorsInParallel(ExecutorService executor, final Object object, final List<Validator> validators,
+                                         List<List<Integer>> groups, ValidatorContext validatorContext,
+                                         final String method) throws ValidationException {
+        final ValueStack stack = ActionContext.getContext().getValueStack();
+        final BlockingQueue<Runnable> callerTasks = new LinkedBlockingQueue<Runnable>();
+        TextProvider textProvider = CallerTextProvider.newInstance(validatorContext, Thread.currentThread(), callerTasks);
+        final Locale locale = validatorContext.getLocale();
+        LocaleProvider localeProvider = new LocaleProvider() {
+            public Locale getLocale() {
+                return locale;
+            }
+        };
+        List<Future<List<RecordedMessage>>> futures = new ArrayList<Future<List<RecordedMessage>>>(groups.size());
 
-                    if ((shortcircuitedFields != null) && shortcircuitedFields.contains(fullFieldName)) {
-                        if (LOG.isDebugEnabled()) {
-                            LOG.debug("Short-circuited, skipping");
+        try {
+            for (final List<Integer> group : groups) {
+                final RecordingValidatorContext recordingContext = new RecordingValidatorContext(textProvider, localeProvider);
+                futures.add(executor.submit(new Callable<List<RecordedMessage>>() {
+                    public List<RecordedMessage> call() throws Exception {
+                        try {
+                            return runValidatorGroup(object, validators, group, stack, recordingContext, method);
+                        } finally {
+                            callerTasks.add(TASK_DONE);
                         }
-
-                        continue;
                     }
+                }));
+            }
+        } catch (RuntimeException e) {
+            // nobody would run the text lookups of the tasks already submitted
+            for (Future<List<RecordedMessage>> future : futures) {
+                future.cancel(true);
+            }
+            throw e;
+        }
+
+        try {
+            for (int done = 0; done < futures.size();) {
+                Runnable task = callerTasks.take();
+                if (task == TASK_DONE) {
+                    done++;
+                } else {
+                    task.run();
                 }
+            }
+        } catch (InterruptedException e) {
+            for (Future<List<RecordedMessage>> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new ValidationException("Interrupted while waiting for validators of " + object);
+        }
 
-                if (validator instanceof ShortCircuitableValidator && ((ShortCircuitableValidator) validator).isShortCircuit()) {
-                    // get number of existing errors
-                    List<String> errs = null;
+        List<RecordedMessage> messages = new ArrayList<RecordedMessage>();
+        ValidationException failure = null;
+        int failedIndex = Integer.MAX_VALUE;
 
-                    if (fValidator != null) {
-                        if (validatorContext.hasFieldErrors()) {
-                            Collection<String> fieldErrors = validatorContext.getFieldErrors().get(fullFieldName);
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                messages.addAll(futures.get(i).get());
+            } catch (ExecutionException e) {
+                // keep the failure of the first validator, as a serial run would have stopped there
+                int index = groups.get(i).get(0);
+                if (index < failedIndex) {
+                    failedIndex = index;
+                    failure = toValidationException(e.getCause());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new ValidationException("Interrupted while waiting for validators of " + object);
+            }
+        }
 
-                            if (fieldErrors != null) {
-                                errs = new ArrayList<String>(fieldErrors);
-                            }
-                        }
-                    } else if (validatorContext.hasActionErrors()) {
-                        Collection<String> actionErrors = validatorContext.getActionErrors();
+        for (Validator validator : validators) {
+            validator.setValueStack(stack);
+        }
 
-                        if (actionErrors != null) {
-                            errs = new ArrayList<String>(actionErrors);
-                        }
-                    }
+        Collections.sort(messages);
+        for (RecordedMessage message : messages) {
+            if (message.validatorIndex < failedIndex) {
+                message.replay(validatorContext);
+            }
+        }
 
-                    validator.validate(object);
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<RecordedMessage> runValidatorGroup(Object object, List<Validator> validators, List<Integer> group,
+                                                    ValueStack callerStack, RecordingValidatorContext recordingContext,
+                                                    String method) throws ValidationException {
+        ValueStack stack = valueStackFactory.createValueStack(callerStack);
+        Map<String, Object> contextMap = stack.getContext();
+        for (Map.Entry<String, Object> entry : callerStack.getContext().entrySet()) {
+            if (!contextMap.containsKey(entry.getKey())) {
+                contextMap.put(entry.getKey(), entry.getValue());
+            }
+        }
+
+        ActionContext previous = ActionContext.getContext();
+        ActionContext.setContext(new ActionContext(contextMap));
+        parallelTask.set(Boolean.TRUE);
 
-                    if (fValidator != null) {
-                        if (validatorContext.hasFieldErrors()) {
-                            Collection<String> errCol = validatorContext.getFieldErrors().get(fullFieldName);
+        try {
+            for (Integer index : group) {
+                Validator validator = validators.get(index);
+                validator.setValueStack(stack);
+                recordingContext.validatorIndex = index;
 
-                            if ((errCol != null) && !errCol.equals(errs)) {
-                                if (LOG.isDebugEnabled()) {
-                                    LOG.debug("Short-circuiting on field validation");
-                                }
+                try {
+                    validator.setValidatorContext(recordingContext);
 
-                                if (shortcircuitedFields == null) {
-                                    shortcircuitedFields = new TreeSet<String>();
-                                }
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Running validator: " + validator + " for object " + object + " and method " + method);
+                    }
 
-                                shortcircuitedFields.add(fullFieldName);
-                            }
-                        }
-                    } else if (validatorContext.hasActionErrors()) {
-                        Collection<String> errCol = validatorContext.getActionErrors();
+                    boolean shortCircuit = (validator instanceof ShortCircuitableValidator) && ((ShortCircuitableValidator) validator).isShortCircuit();
+                    int errs = recordingContext.messages.size();
 
-                        if ((errCol != null) && !errCol.equals(errs)) {
-                            if (LOG.isDebugEnabled()) {
-                                LOG.debug("Short-circuiting");
-                            }
+                    validator.validate(object);
 
-                            break;
+                    // all validators of a group validate the same field, so the field is short-circuited as a whole
+                    if (shortCircuit && (validator instanceof FieldValidator)
+                            && recordingContext.hasFieldErrorsSince(errs, ((FieldValidator) validator).getFieldName())) {
+                        if (LOG.isDebugEnabled()) {
+                            LOG.debug("Short-circuiting on field validation");
                         }
-                    }
 
-                    continue;
+                        break;
+                    }
+                } finally {
+                    validator.setValidatorContext(null);
                 }
-
-                validator.validate(object);
-            }
-            finally {
-                validator.setValidatorContext(null);
             }
+        } finally {
+            parallelTask.remove();
+            ActionContext.setContext(previous);
+        }
+
+        return recordingContext.messages;
+    }
+
+    private static ValidationException toValidationException(Throwable cause) {
+        if (cause instanceof ValidationException) {
+            return (ValidationException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
         }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ValidationException(String.valueOf(cause));
     }
 
     /**
@@ -371,6 +607,165 @@ public class DefaultActionValidatorManager implements ActionValidatorManager {
             return validatorContext.getFullFieldName(field);
         }
 
-    }    
+    }
+
+    /**
+     * A validation context that records errors and messages so they can be replayed into the real context
+     * once all parallel validators have finished.
+     */
+    private static class RecordingValidatorContext extends DelegatingValidatorContext {
+
+        private final List<RecordedMessage> messages = new ArrayList<RecordedMessage>();
+        private int validatorIndex;
+
+        RecordingValidatorContext(TextProvider textProvider, LocaleProvider localeProvider) {
+            super(new ValidationAwareSupport(), textProvider, localeProvider);
+        }
+
+        boolean hasFieldErrorsSince(int count, String fieldName) {
+            for (int i = count; i < messages.size(); i++) {
+                RecordedMessage message = messages.get(i);
+                if ((message.type == RecordedMessage.FIELD_ERROR) && fieldName.equals(message.fieldName)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void addActionError(String anErrorMessage) {
+            super.addActionError(anErrorMessage);
+            messages.add(new RecordedMessage(validatorIndex, messages.size(), RecordedMessage.ACTION_ERROR, null, anErrorMessage));
+        }
+
+        @Override
+        public void addActionMessage(String aMessage) {
+            super.addActionMessage(aMessage);
+            messages.add(new RecordedMessage(validatorIndex, messages.size(), RecordedMessage.ACTION_MESSAGE, null, aMessage));
+        }
+
+        @Override
+        public void addFieldError(String fieldName, String errorMessage) {
+            super.addFieldError(fieldName, errorMessage);
+            messages.add(new RecordedMessage(validatorIndex, messages.size(), RecordedMessage.FIELD_ERROR, fieldName, errorMessage));
+        }
+    }
+
+    /**
+     * An error or message reported by a validator, ordered by the position of the validator and then by the
+     * order it was reported in.
+     */
+    private static class RecordedMessage implements Comparable<RecordedMessage> {
+
+        static final int ACTION_ERROR = 0;
+        static final int ACTION_MESSAGE = 1;
+        static final int FIELD_ERROR = 2;
+
+        final int validatorIndex;
+        final int sequence;
+        final int type;
+        final String fieldName;
+        final String message;
+
+        RecordedMessage(int validatorIndex, int sequence, int type, String fieldName, String message) {
+            this.validatorIndex = validatorIndex;
+            this.sequence = sequence;
+            this.type = type;
+            this.fieldName = fieldName;
+            this.message = message;
+        }
+
+        void replay(ValidatorContext validatorContext) {
+            switch (type) {
+                case ACTION_ERROR:
+                    validatorContext.addActionError(message);
+                    break;
+                case ACTION_MESSAGE:
+                    validatorContext.addActionMessage(message);
+                    break;
+                default:
+                    validatorContext.addFieldError(fieldName, message);
+            }
+        }
+
+        public int compareTo(RecordedMessage other) {
+            if (validatorIndex != other.validatorIndex) {
+                return (validatorIndex < other.validatorIndex) ? -1 : 1;
+            }
+            return (sequence < other.sequence) ? -1 : ((sequence == other.sequence) ? 0 : 1);
+        }
+    }
+
+    /**
+     * Runs text lookups on the thread waiting for the parallel validation tasks, so that the validation context
+     * is only ever used by that thread.
+     */
+    private static class CallerTextProvider implements InvocationHandler {
+
+        private final TextProvider textProvider;
+        private final Thread caller;
+        private final BlockingQueue<Runnable> callerTasks;
+
+        private CallerTextProvider(TextProvider textProvider, Thread caller, BlockingQueue<Runnable> callerTasks) {
+            this.textProvider = textProvider;
+            this.caller = caller;
+            this.callerTasks = callerTasks;
+        }
+
+        static TextProvider newInstance(TextProvider textProvider, Thread caller, BlockingQueue<Runnable> callerTasks) {
+            return (TextProvider) Proxy.newProxyInstance(TextProvider.class.getClassLoader(),
+                    new Class[]{TextProvider.class}, new CallerTextProvider(textProvider, caller, callerTasks));
+        }
+
+        public Object invoke(Object proxy, final Method method, final Object[] args) throws Throwable {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+            if (Thread.currentThread() == caller) {
+                return lookup(method, args);
+            }
+
+            FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+                public Object call() throws Exception {
+                    try {
+                        return lookup(method, args);
+                    } catch (Throwable t) {
+                        throw new InvocationTargetException(t);
+                    }
+                }
+            });
+            callerTasks.add(task);
+            try {
+                return task.get();
+            } catch (ExecutionException e) {
+                throw e.getCause().getCause();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for text lookup " + method.getName());
+            }
+        }
+
+        private Object lookup(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(textProvider, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+
+    /**
+     * Creates the daemon threads of the parallel validation pool.
+     */
+    private static class ValidationThreadFactory implements ThreadFactory {
+
+        private int count;
+
+        public synchronized Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "xwork-validation-" + (++count));
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 
 }
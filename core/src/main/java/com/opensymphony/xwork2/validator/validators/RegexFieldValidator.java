@@ -7,6 +7,8 @@ package com.opensymphony.xwork2.validator.validators;
 
 import com.opensymphony.xwork2.validator.ValidationException;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -51,9 +53,16 @@ import java.util.regex.Pattern;
  */
 public class RegexFieldValidator extends FieldValidatorSupport {
 
+    /**
+     * Compiled patterns shared between validator instances, keyed by case sensitivity and expression.
+     * Validators are instantiated per validation so the pattern must outlive the instance.
+     */
+    private static final ConcurrentMap<String, Pattern> patternCache = new ConcurrentHashMap<String, Pattern>();
+
     private String expression;
     private boolean caseSensitive = true;
     private boolean trim = true;
+    private Pattern pattern;
 
     public void validate(Object object) throws ValidationException {
         String fieldName = getFieldName();
@@ -76,18 +85,11 @@ public class RegexFieldValidator extends FieldValidatorSupport {
         }
 
         // match against expression
-        Pattern pattern;
-        if (isCaseSensitive()) {
-            pattern = Pattern.compile(expression);
-        } else {
-            pattern = Pattern.compile(expression, Pattern.CASE_INSENSITIVE);
-        }
-
         String compare = (String) value;
         if ( trim ) {
             compare = compare.trim();
         }
-        Matcher matcher = pattern.matcher( compare );
+        Matcher matcher = getPattern().matcher( compare );
 
         if (!matcher.matches()) {
             addFieldError(fieldName, object);
@@ -106,6 +108,18 @@ public class RegexFieldValidator extends FieldValidatorSupport {
      */
     public void setExpression(String expression) {
         this.expression = expression;
+        this.pattern = null;
+    }
+
+    /**
+     * @return Returns the compiled regular expression, taking case sensitivity into account.
+     *         Patterns are compiled once and shared by all validators using the same expression.
+     */
+    public Pattern getPattern() {
+        if (pattern == null && expression != null) {
+            pattern = compilePattern(expression, caseSensitive);
+        }
+        return pattern;
     }
 
     /**
@@ -122,6 +136,7 @@ public class RegexFieldValidator extends FieldValidatorSupport {
      */
     public void setCaseSensitive(boolean caseSensitive) {
         this.caseSensitive = caseSensitive;
+        this.pattern = null;
     }
 
     /**
@@ -140,4 +155,17 @@ public class RegexFieldValidator extends FieldValidatorSupport {
         this.trim = trim;
     }
 
+    private static Pattern compilePattern(String expression, boolean caseSensitive) {
+        String key = (caseSensitive ? "s:" : "i:") + expression;
+        Pattern compiled = patternCache.get(key);
+        if (compiled == null) {
+            compiled = caseSensitive ? Pattern.compile(expression) : Pattern.compile(expression, Pattern.CASE_INSENSITIVE);
+            Pattern existing = patternCache.putIfAbsent(key, compiled);
+            if (existing != null) {
+                compiled = existing;
+            }
+        }
+        return compiled;
+    }
+
 }
@@ -8,6 +8,7 @@ import com.opensymphony.xwork2.ActionContext;
 import com.opensymphony.xwork2.inject.Inject;
 import com.opensymphony.xwork2.util.ValueStack;
 import com.opensymphony.xwork2.validator.ActionValidatorManager;
+import com.opensymphony.xwork2.validator.BatchActionValidatorManager;
 import com.opensymphony.xwork2.validator.DelegatingValidatorContext;
 import com.opensymphony.xwork2.validator.ValidationException;
 import com.opensymphony.xwork2.validator.ValidatorContext;
@@ -138,29 +139,45 @@ public class VisitorFieldValidator extends FieldValidatorSupport {
             return;
         }
 
+        if (!(actionValidatorManager instanceof BatchActionValidatorManager)) {
+            for (int i = 0; i < array.length; i++) {
+                Object o = array[i];
+                if (o != null) {
+                    validateObject(fieldName + "[" + i + "]", o, visitorContext);
+                }
+            }
+            return;
+        }
+
+        // validate all elements in one pass so the validators are looked up only once
+        ValidatorContext[] validatorContexts = new ValidatorContext[array.length];
         for (int i = 0; i < array.length; i++) {
             Object o = array[i];
             if (o != null) {
-                validateObject(fieldName + "[" + i + "]", o, visitorContext);
+                validatorContexts[i] = createValidatorContext(fieldName + "[" + i + "]", o);
             }
         }
+
+        ((BatchActionValidatorManager) actionValidatorManager).validateAll(array, visitorContext, validatorContexts);
     }
 
     private void validateObject(String fieldName, Object o, String visitorContext) throws ValidationException {
         ValueStack stack = ActionContext.getContext().getValueStack();
         stack.push(o);
 
-        ValidatorContext validatorContext;
+        ValidatorContext validatorContext = createValidatorContext(fieldName, o);
+
+        actionValidatorManager.validate(o, visitorContext, validatorContext);
+        stack.pop();
+    }
 
+    private ValidatorContext createValidatorContext(String fieldName, Object o) {
         if (appendPrefix) {
-            validatorContext = new AppendingValidatorContext(getValidatorContext(), o, fieldName, getMessage(o));
+            return new AppendingValidatorContext(getValidatorContext(), o, fieldName, getMessage(o));
         } else {
             ValidatorContext parent = getValidatorContext();
-            validatorContext = new DelegatingValidatorContext(parent, DelegatingValidatorContext.makeTextProvider(o, parent), parent);
+            return new DelegatingValidatorContext(parent, DelegatingValidatorContext.makeTextProvider(o, parent), parent);
         }
-
-        actionValidatorManager.validate(o, visitorContext, validatorContext);
-        stack.pop();
     }
 
 
@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+import com.opensymphony.xwork2.config.entities.ResultConfig;
+import com.opensymphony.xwork2.inject.Container;
+import com.opensymphony.xwork2.inject.Inject;
+import com.opensymphony.xwork2.util.classloader.ReloadingClassLoader;
+import com.opensymphony.xwork2.util.reflection.ReflectionException;
+import com.opensymphony.xwork2.util.reflection.ReflectionExceptionHandler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unit test for {@link ObjectFactory}.
+ */
+public class ObjectFactoryTest extends XWorkTestCase {
+
+    private ObjectFactory objectFactory;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        objectFactory = container.getInstance(ObjectFactory.class);
+    }
+
+    public void testBuildResultSetsParams() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", ParamsResult.class.getName())
+                .addParam("location", "/foo.jsp")
+                .addParam("status", "404")
+                .addParam("bean.name", "nested")
+                .build();
+        Map<String, Object> extraContext = ActionContext.getContext().getContextMap();
+
+        for (int i = 0; i < 2; i++) {
+            ParamsResult result = (ParamsResult) objectFactory.buildResult(resultConfig, extraContext);
+
+            assertEquals("/foo.jsp", result.getLocation());
+            assertEquals(404, result.getStatus());
+            assertEquals("nested", result.getBean().getName());
+        }
+
+        ObjectFactory.ResultPlan plan = new ObjectFactory.ResultPlan(ParamsResult.class, resultConfig.getParams());
+        assertNotNull(plan.setters[0]);
+        assertNull(plan.setters[1]);
+        assertNull(plan.setters[2]);
+    }
+
+    public void testBuildResultReportsSetterExceptions() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", ParamsResult.class.getName())
+                .addParam("failing", "value")
+                .build();
+
+        ParamsResult result = (ParamsResult) objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+
+        assertNotNull(result.getException());
+        assertTrue(result.getException().getCause() instanceof IllegalArgumentException);
+    }
+
+    public void testReusableResultIsBuiltOnce() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", SharedResult.class.getName())
+                .addParam("location", "/foo.jsp")
+                .build();
+
+        Result result = objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+
+        assertEquals("/foo.jsp", ((SharedResult) result).getLocation());
+        assertSame(result, objectFactory.buildResult(resultConfig, new HashMap<String, Object>()));
+        assertNotSame(result, objectFactory.buildResult(new ResultConfig.Builder("success", SharedResult.class.getName())
+                .addParam("location", "/bar.jsp").build(), new HashMap<String, Object>()));
+    }
+
+    public void testPrototypeResultIsCopied() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", CopiedResult.class.getName())
+                .addParam("location", "/foo.jsp")
+                .addParam("status", "404")
+                .build();
+
+        CopiedResult first = (CopiedResult) objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+        CopiedResult second = (CopiedResult) objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+
+        assertNotSame(first, second);
+        assertTrue(first.isCopy());
+        assertTrue(second.isCopy());
+        assertEquals("/foo.jsp", second.getLocation());
+        assertEquals(404, second.getStatus());
+    }
+
+    public void testSharedResultsAreKeyedByLoadedClass() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", SharedResult.class.getName())
+                .addParam("location", "/foo.jsp")
+                .build();
+        objectFactory.setClassLoader(new RedefiningClassLoader(getClass().getClassLoader(), SharedResult.class.getName()));
+        Result result = objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+        assertSame(result, objectFactory.buildResult(resultConfig, new HashMap<String, Object>()));
+
+        // the application is redeployed, and its result class loaded again
+        objectFactory.setClassLoader(new RedefiningClassLoader(getClass().getClassLoader(), SharedResult.class.getName()));
+        Result reloaded = objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+
+        assertNotSame(result.getClass(), reloaded.getClass());
+        assertEquals(SharedResult.class.getName(), reloaded.getClass().getName());
+        assertSame(reloaded, objectFactory.buildResult(resultConfig, new HashMap<String, Object>()));
+    }
+
+    public void testClearCachesDropsSharedResults() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", SharedResult.class.getName()).build();
+        Result result = objectFactory.buildResult(resultConfig, new HashMap<String, Object>());
+
+        objectFactory.clearCaches();
+
+        assertNotSame(result, objectFactory.buildResult(resultConfig, new HashMap<String, Object>()));
+    }
+
+    public void testPlainResultIsBuiltPerRequest() throws Exception {
+        ResultConfig resultConfig = new ResultConfig.Builder("success", ParamsResult.class.getName()).build();
+
+        assertNotSame(objectFactory.buildResult(resultConfig, null), objectFactory.buildResult(resultConfig, null));
+    }
+
+    public void testClassesAreCachedPerClassLoader() throws Exception {
+        CountingClassLoader loader = new CountingClassLoader(getClass().getClassLoader());
+        ObjectFactory factory = new ObjectFactory();
+        factory.setClassLoader(loader);
+
+        assertSame(TestBean.class, factory.getClassInstance(TestBean.class.getName()));
+        assertSame(TestBean.class, factory.getClassInstance(TestBean.class.getName()));
+        for (int i = 0; i < 2; i++) {
+            try {
+                factory.getClassInstance("com.opensymphony.xwork2.DoesNotExist");
+                fail("class should not be found");
+            } catch (ClassNotFoundException e) {
+                assertEquals("com.opensymphony.xwork2.DoesNotExist", e.getMessage());
+            }
+        }
+        assertEquals(2, loader.count);
+
+        CountingClassLoader otherLoader = new CountingClassLoader(getClass().getClassLoader());
+        factory.setClassLoader(otherLoader);
+        assertSame(TestBean.class, factory.getClassInstance(TestBean.class.getName()));
+        assertEquals(1, otherLoader.count);
+    }
+
+    public void testClassesFromReloadingClassLoaderAreNotCached() throws Exception {
+        final int[] count = new int[1];
+        ObjectFactory factory = new ObjectFactory();
+        factory.setClassLoader(new ReloadingClassLoader(getClass().getClassLoader()) {
+            @Override
+            public Class loadClass(String name) throws ClassNotFoundException {
+                count[0]++;
+                return super.loadClass(name);
+            }
+        });
+
+        factory.getClassInstance(TestBean.class.getName());
+        factory.getClassInstance(TestBean.class.getName());
+        assertEquals(2, count[0]);
+    }
+
+    public void testCachesAreRecreatedOnDeserialization() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(new ObjectFactory());
+        out.close();
+        ObjectFactory factory = (ObjectFactory) new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+
+        assertSame(TestBean.class, factory.getClassInstance(TestBean.class.getName()));
+        assertTrue(factory.buildBean(TestBean.class, null) instanceof TestBean);
+        assertTrue(factory.buildResult(new ResultConfig.Builder("success", SharedResult.class.getName()).build(), null) instanceof SharedResult);
+    }
+
+    public void testBuildBeanRethrowsConstructorExceptions() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            try {
+                objectFactory.buildBean(FailingBean.class, null);
+                fail("IOException should be thrown!");
+            } catch (IOException e) {
+                assertEquals("failing", e.getMessage());
+            }
+        }
+    }
+
+    public void testBuildBeanUsesInjectConstructor() throws Exception {
+        InjectedBean bean = (InjectedBean) objectFactory.buildBean(InjectedBean.class.getName(), null);
+
+        assertSame(container, bean.getContainer());
+        assertEquals(1, bean.getInjections());
+        assertTrue(objectFactory.isInjectedOnConstruction(PrivatelyInjectedBean.class));
+        assertFalse(objectFactory.isInjectedOnConstruction(FailingBean.class));
+
+        try {
+            new ObjectFactory().buildBean(InjectedBean.class, null);
+            fail("InstantiationException should be thrown without a container!");
+        } catch (InstantiationException e) {
+            assertEquals(InjectedBean.class.getName(), e.getMessage());
+        }
+    }
+
+    public static class FailingBean {
+
+        public FailingBean() throws IOException {
+            throw new IOException("failing");
+        }
+    }
+
+    public static class InjectedBean {
+
+        private final Container container;
+        private int injections;
+
+        @Inject
+        public InjectedBean(Container container) {
+            this.container = container;
+        }
+
+        public Container getContainer() {
+            return container;
+        }
+
+        public int getInjections() {
+            return injections;
+        }
+
+        @Inject
+        public void setObjectFactory(ObjectFactory objectFactory) {
+            injections++;
+        }
+    }
+
+    public static class PrivatelyInjectedBean {
+
+        @Inject
+        PrivatelyInjectedBean(Container container) {
+        }
+    }
+
+    static class CountingClassLoader extends ClassLoader {
+        int count;
+
+        CountingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        public Class<?> loadClass(String name) throws ClassNotFoundException {
+            count++;
+            return super.loadClass(name);
+        }
+    }
+
+    /**
+     * Defines its own copy of one class, like the class loader of a redeployed application would.
+     */
+    static class RedefiningClassLoader extends ClassLoader {
+        private final String className;
+
+        RedefiningClassLoader(ClassLoader parent, String className) {
+            super(parent);
+            this.className = className;
+        }
+
+        @Override
+        protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(className)) {
+                return super.loadClass(name, resolve);
+            }
+
+            Class<?> clazz = findLoadedClass(name);
+            if (clazz == null) {
+                try {
+                    InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class");
+                    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+                    byte[] buffer = new byte[4096];
+                    for (int read; (read = in.read(buffer)) != -1;) {
+                        bytes.write(buffer, 0, read);
+                    }
+                    in.close();
+                    clazz = defineClass(name, bytes.toByteArray(), 0, bytes.size());
+                } catch (IOException e) {
+                    throw new ClassNotFoundException(name, e);
+                }
+            }
+            return clazz;
+        }
+    }
+
+    public static class SharedResult extends ParamsResult implements ReusableResult {
+    }
+
+    public static class CopiedResult extends ParamsResult implements PrototypeResult {
+
+        private boolean copy;
+
+        public boolean isCopy() {
+            return copy;
+        }
+
+        public PrototypeResult copy() {
+            CopiedResult result = new CopiedResult();
+            result.setLocation(getLocation());
+            result.setStatus(getStatus());
+            result.copy = true;
+            return result;
+        }
+    }
+
+    public static class ParamsResult implements Result, ReflectionExceptionHandler {
+
+        private String location;
+        private int status;
+        private TestBean bean = new TestBean();
+        private ReflectionException exception;
+
+        public void execute(ActionInvocation invocation) throws Exception {
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public void setLocation(String location) {
+            this.location = location;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public void setStatus(int status) {
+            this.status = status;
+        }
+
+        public TestBean getBean() {
+            return bean;
+        }
+
+        public void setFailing(String failing) {
+            throw new IllegalArgumentException(failing);
+        }
+
+        public ReflectionException getException() {
+            return exception;
+        }
+
+        public void handle(ReflectionException ex) {
+            exception = ex;
+        }
+    }
+}
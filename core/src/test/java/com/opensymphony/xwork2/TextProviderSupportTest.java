@@ -5,9 +5,14 @@
 
 package com.opensymphony.xwork2;
 
+import com.opensymphony.xwork2.inject.ContainerBuilder;
+
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.ResourceBundle;
 
 /**
@@ -93,6 +98,80 @@ public class TextProviderSupportTest extends XWorkTestCase {
         assertEquals("\"=!@#$%^&*()<>?:|[]\\';/.,<>`~'", val);
     } 
     
+    public void testMemoizedTexts() throws Exception {
+        final int[] lookups = new int[1];
+        TextProviderSupport memoized = new TextProviderSupport(countingBundle(lookups), new LocaleProvider() {
+            public Locale getLocale() {
+                return Locale.ENGLISH;
+            }
+        });
+
+        memoized.setMemo("true");
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Hello World", memoized.getText("hello"));
+            assertEquals("Hello World Santa", memoized.getText("hello.0", "this is default", "Santa"));
+            assertTrue(memoized.hasKey("hello"));
+        }
+        // a lookup of the text and one of its message on each first use
+        assertEquals(6, lookups[0]);
+        assertEquals("Hello World Claus", memoized.getText("hello.0", "this is default", "Claus"));
+        assertEquals(8, lookups[0]);
+
+        ActionContext.getContext().put(TextMemo.CONTEXT_KEY, null);
+        assertEquals("Hello World", memoized.getText("hello"));
+        assertEquals(10, lookups[0]);
+
+        memoized.setMemo("false");
+        assertEquals("Hello World", memoized.getText("hello"));
+        assertEquals(11, lookups[0]);
+    }
+
+    public void testExpressionsAreNotMemoized() throws Exception {
+        tp.setMemo("true");
+        Map<String, String> values = new HashMap<String, String>();
+        ActionContext.getContext().getValueStack().push(values);
+
+        values.put("greeted", "Santa");
+        assertEquals("Hello Santa", tp.getText("hello.expression"));
+        assertEquals("Bye Santa", tp.getText("not.in.bundle", "Bye ${greeted}"));
+
+        values.put("greeted", "Claus");
+        assertEquals("Hello Claus", tp.getText("hello.expression"));
+        assertEquals("Bye Claus", tp.getText("not.in.bundle", "Bye ${greeted}"));
+    }
+
+    public void testMemoIsEnabledByConstant() throws Exception {
+        final int[] lookups = new int[1];
+        ContainerBuilder builder = new ContainerBuilder();
+        builder.constant(TextProviderSupport.MEMO_CONFIG_KEY, "true");
+        builder.factory(TextProvider.class, TextProviderSupport.class);
+        TextProviderSupport memoized = (TextProviderSupport) builder.create(false).getInstance(TextProvider.class);
+        memoized.setBundle(countingBundle(lookups));
+        memoized.setLocaleProvider(new LocaleProvider() {
+            public Locale getLocale() {
+                return Locale.ENGLISH;
+            }
+        });
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("Hello World", memoized.getText("hello"));
+        }
+        assertEquals(2, lookups[0]);
+    }
+
+    private ResourceBundle countingBundle(final int[] lookups) {
+        return new ResourceBundle() {
+            protected Object handleGetObject(String key) {
+                lookups[0]++;
+                return rb.getObject(key);
+            }
+
+            public Enumeration<String> getKeys() {
+                return rb.getKeys();
+            }
+        };
+    }
+
     @Override
     protected void setUp() throws Exception {
         super.setUp();
@@ -109,7 +188,4 @@ public class TextProviderSupportTest extends XWorkTestCase {
         rb = null;
         tp = null;
     }
-
-
 }
-
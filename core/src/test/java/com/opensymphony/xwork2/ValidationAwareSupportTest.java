@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Unit test for {@link ValidationAwareSupport} and {@link SynchronizedValidationAwareSupport}.
+ */
+public class ValidationAwareSupportTest extends TestCase {
+
+    public void testGettersReturnCopies() {
+        ValidationAwareSupport support = new ValidationAwareSupport();
+        support.addActionError("error");
+        support.addFieldError("name", "required");
+
+        Collection<String> actionErrors = support.getActionErrors();
+        for (String error : actionErrors) {
+            support.addActionError("another " + error);
+        }
+        actionErrors.clear();
+        support.getFieldErrors().remove("name");
+        support.getActionMessages().add("message");
+
+        assertEquals(2, support.getActionErrors().size());
+        assertEquals(1, support.getFieldErrors().size());
+        assertFalse(support.hasActionMessages());
+    }
+
+    public void testSettersCopy() {
+        List<String> errors = new ArrayList<String>();
+        errors.add("error");
+
+        ValidationAwareSupport support = new ValidationAwareSupport();
+        support.setActionErrors(errors);
+        support.addActionError("another error");
+
+        assertEquals(1, errors.size());
+        assertEquals(2, support.getActionErrors().size());
+    }
+
+    public void testSynchronizedVariantReturnsCopies() {
+        ValidationAwareSupport support = new SynchronizedValidationAwareSupport();
+        support.addActionError("error");
+
+        Collection<String> actionErrors = support.getActionErrors();
+        actionErrors.add("local copy");
+
+        assertEquals(1, support.getActionErrors().size());
+        assertTrue(support.hasErrors());
+
+        support.clearErrorsAndMessages();
+        assertFalse(support.hasErrors());
+    }
+}
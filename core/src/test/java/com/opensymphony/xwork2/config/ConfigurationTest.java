@@ -12,6 +12,7 @@ import com.opensymphony.xwork2.SimpleAction;
 import com.opensymphony.xwork2.XWorkTestCase;
 import com.opensymphony.xwork2.config.entities.ActionConfig;
 import com.opensymphony.xwork2.config.entities.InterceptorMapping;
+import com.opensymphony.xwork2.config.impl.DefaultConfiguration;
 import com.opensymphony.xwork2.config.providers.MockConfigurationProvider;
 import com.opensymphony.xwork2.config.providers.XmlConfigurationProvider;
 import com.opensymphony.xwork2.inject.ContainerBuilder;
@@ -258,6 +259,20 @@ public class ConfigurationTest extends XWorkTestCase {
         });
     }
 
+    public void testPrepareInjections() throws Exception {
+        loadConfigurationProviders(new XmlConfigurationProvider("xwork-sample.xml"), new StubConfigurationProvider() {
+            @Override
+            public void register(ContainerBuilder builder,
+                    LocatableProperties props) throws ConfigurationException {
+                props.setProperty(DefaultConfiguration.PREPARE_INJECTIONS_CONFIG_KEY, "true");
+            }
+        });
+
+        assertEquals("true", container.getInstance(String.class, DefaultConfiguration.PREPARE_INJECTIONS_CONFIG_KEY));
+        ActionProxy proxy = actionProxyFactory.createActionProxy("", "Foo", null);
+        assertNotNull(proxy.getAction());
+    }
+
     public void testMultipleInheritance() {
         try {
             ActionProxy proxy;
@@ -0,0 +1,127 @@
+package com.opensymphony.xwork2.inject;
+
+import junit.framework.TestCase;
+
+import java.lang.ref.WeakReference;
+import java.lang.reflect.InvocationTargetException;
+
+/**
+ * AccessorGenerator Tester.
+ */
+public class AccessorGeneratorTest extends TestCase {
+
+    private ContainerImpl container;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        ContainerBuilder cb = new ContainerBuilder();
+        cb.constant("name", "Lukasz");
+        cb.constant("count", 3);
+        cb.factory(Dependency.class);
+        container = (ContainerImpl) cb.create(false);
+    }
+
+    public void testPublicMembersUseGeneratedAccessors() throws Exception {
+        PublicBean bean = container.inject(PublicBean.class);
+
+        assertEquals("Lukasz", bean.name);
+        assertEquals(3, bean.count);
+        assertNotNull(bean.dependency);
+        assertNotNull(bean.constructorDependency);
+
+        assertNotNull(container.getConstructor(PublicBean.class).accessor);
+        for (ContainerImpl.Injector injector : container.injectors.get(PublicBean.class)) {
+            if (injector instanceof ContainerImpl.FieldInjector) {
+                assertNotNull(((ContainerImpl.FieldInjector) injector).accessor);
+            } else {
+                assertNotNull(((ContainerImpl.MethodInjector) injector).accessor);
+            }
+        }
+    }
+
+    public void testNonPublicMembersUseReflection() throws Exception {
+        PrivateBean bean = new PrivateBean();
+        container.inject(bean);
+
+        assertEquals("Lukasz", bean.name);
+        for (ContainerImpl.Injector injector : container.injectors.get(PrivateBean.class)) {
+            assertNull(((ContainerImpl.FieldInjector) injector).accessor);
+        }
+    }
+
+    public void testExceptionsAreWrappedLikeReflection() throws Exception {
+        try {
+            container.inject(new FailingBean());
+            fail("Exception should be thrown!");
+        } catch (RuntimeException e) {
+            assertTrue(e.getCause() instanceof InvocationTargetException);
+            assertTrue(e.getCause().getCause() instanceof IllegalStateException);
+        }
+    }
+
+    public void testAccessorsAreUnloadedWithTheirContainer() throws Exception {
+        container.inject(PublicBean.class);
+        ClassLoader loader = container.getConstructor(PublicBean.class).accessor.getClass().getClassLoader();
+        WeakReference<ClassLoader> reference = new WeakReference<ClassLoader>(loader);
+
+        ContainerBuilder cb = new ContainerBuilder();
+        cb.constant("name", "Lukasz");
+        cb.constant("count", 3);
+        cb.factory(Dependency.class);
+        ContainerImpl reloaded = (ContainerImpl) cb.create(false);
+        reloaded.inject(PublicBean.class);
+        assertNotSame(loader, reloaded.getConstructor(PublicBean.class).accessor.getClass().getClassLoader());
+
+        loader = null;
+        container = null;
+        for (int i = 0; i < 50 && reference.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull("Accessor class loader should be collected with its container", reference.get());
+    }
+
+    public static class Dependency {
+    }
+
+    public static class PublicBean {
+
+        @Inject("name")
+        public String name;
+        public int count;
+        public Dependency dependency;
+        public final Dependency constructorDependency;
+
+        @Inject
+        public PublicBean(Dependency constructorDependency) {
+            this.constructorDependency = constructorDependency;
+        }
+
+        @Inject("count")
+        public void setCount(int count) {
+            this.count = count;
+        }
+
+        @Inject
+        public boolean setDependency(Dependency dependency) {
+            this.dependency = dependency;
+            return true;
+        }
+    }
+
+    public static class PrivateBean {
+
+        @Inject("name")
+        private String name;
+    }
+
+    public static class FailingBean {
+
+        @Inject("name")
+        public void setName(String name) {
+            throw new IllegalStateException(name);
+        }
+    }
+
+}
@@ -54,6 +54,19 @@ public class ContainerImplTest extends TestCase {
         }
     }
 
+    /**
+     * Look up injection points ahead of injection
+     */
+    public void testPrepare() throws Exception {
+        ContainerImpl container = (ContainerImpl) c;
+        assertFalse(container.injectors.containsKey(FieldCheck.class));
+
+        c.prepare(FieldCheck.class, MissingCheck.class);
+
+        assertTrue(container.injectors.containsKey(FieldCheck.class));
+        assertFalse(container.injectors.containsKey(MissingCheck.class));
+    }
+
     /**
      * Inject values into field under SecurityManager
      */
@@ -101,6 +114,12 @@ public class ContainerImplTest extends TestCase {
         }
     }
 
+    class MissingCheck {
+
+        @Inject("missing.name")
+        private String name;
+    }
+
     class MethodCheck {
 
         private String name;
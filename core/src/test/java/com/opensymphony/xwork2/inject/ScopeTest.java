@@ -0,0 +1,86 @@
+package com.opensymphony.xwork2.inject;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Scope Tester.
+ */
+public class ScopeTest extends TestCase {
+
+    public void testCreatedSingletonsAndConstantsAreLookedUpDirectly() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        ContainerBuilder cb = new ContainerBuilder();
+        cb.constant("name", "Lukasz");
+        cb.factory(Object.class, new Factory<Object>() {
+            public Object create(Context context) throws Exception {
+                created.incrementAndGet();
+                // nested lookups run in the context of the outer one
+                assertEquals("Lukasz", context.getContainer().getInstance(String.class, "name"));
+                return new Object();
+            }
+        }, Scope.SINGLETON);
+        Container container = cb.create(false);
+
+        assertEquals("Lukasz", container.getInstance(String.class, "name"));
+        assertNull(container.getInstance(String.class, "missing"));
+        Object instance = container.getInstance(Object.class);
+        assertSame(instance, container.getInstance(Object.class));
+        assertSame(instance, container.getInstance(Object.class, Container.DEFAULT_NAME));
+        assertEquals(1, created.get());
+        assertSame(container, container.getInstance(Container.class));
+    }
+
+    public void testSingletonIsCreatedOnceForManyThreads() throws Exception {
+        final AtomicInteger created = new AtomicInteger();
+        ContainerBuilder cb = new ContainerBuilder();
+        cb.factory(Object.class, new Factory<Object>() {
+            public Object create(Context context) throws Exception {
+                created.incrementAndGet();
+                Thread.sleep(10);
+                return new Object();
+            }
+        }, Scope.SINGLETON);
+        final Container container = cb.create(false);
+
+        final int threads = 8;
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Object> instances = new ArrayList<Object>();
+        List<Thread> workers = new ArrayList<Thread>();
+        for (int i = 0; i < threads; i++) {
+            Thread worker = new Thread() {
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    Object instance = null;
+                    for (int j = 0; j < 100; j++) {
+                        instance = container.getInstance(Object.class);
+                    }
+                    synchronized (instances) {
+                        instances.add(instance);
+                    }
+                }
+            };
+            worker.start();
+            workers.add(worker);
+        }
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        assertEquals(1, created.get());
+        assertEquals(threads, instances.size());
+        for (Object instance : instances) {
+            assertSame(container.getInstance(Object.class), instance);
+        }
+    }
+
+}
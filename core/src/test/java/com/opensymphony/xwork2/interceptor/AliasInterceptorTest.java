@@ -45,6 +45,21 @@ public class AliasInterceptorTest extends XWorkTestCase {
         assertEquals(actionOne.getAliasSource(), actionOne.getAliasDest());
     }
 
+    public void testLiteralAliasesAreParsedOnce() throws Exception {
+        AliasInterceptor ai = new AliasInterceptor();
+
+        Map<String, String> aliases = ai.findAliases("#{ \"aliasSource\" : \"aliasDest\", 'bar':'baz' }");
+        assertEquals(2, aliases.size());
+        assertEquals("aliasDest", aliases.get("aliasSource"));
+        assertEquals("baz", aliases.get("bar"));
+        assertSame(aliases, ai.findAliases("#{ \"aliasSource\" : \"aliasDest\", 'bar':'baz' }"));
+
+        assertTrue(ai.findAliases("#{}").isEmpty());
+        assertNull(ai.findAliases("#{ 'source' : dest }"));
+        assertNull(ai.findAliases("#{ 'a' : 'b' 'c' : 'd' }"));
+        assertNull(ai.findAliases("aliasMap"));
+    }
+
     public void testInvalidAliasExpression() throws Exception {
         Action action = new SimpleFooAction();
         MockActionInvocation mai = new MockActionInvocation();
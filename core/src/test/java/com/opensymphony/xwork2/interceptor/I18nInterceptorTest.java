@@ -59,6 +59,29 @@ public class I18nInterceptorTest extends TestCase {
         assertEquals(denmark, session.get(I18nInterceptor.DEFAULT_SESSION_ATTRIBUTE)); // should create a locale object
     }
 
+    public void testSessionIsOnlyWrittenWhenLocaleChanges() throws Exception {
+        final int[] puts = new int[1];
+        session = new HashMap() {
+            public Object put(Object key, Object value) {
+                puts[0]++;
+                return super.put(key, value);
+            }
+        };
+        ac.setSession(session);
+
+        params.put(I18nInterceptor.DEFAULT_PARAMETER, "da_DK");
+        interceptor.intercept(mai);
+        params.put(I18nInterceptor.DEFAULT_PARAMETER, "da_DK");
+        interceptor.intercept(mai);
+        assertEquals(1, puts[0]);
+        assertEquals(new Locale("da", "DK"), session.get(I18nInterceptor.DEFAULT_SESSION_ATTRIBUTE));
+
+        params.put(I18nInterceptor.DEFAULT_PARAMETER, "de");
+        interceptor.intercept(mai);
+        assertEquals(2, puts[0]);
+        assertEquals(Locale.GERMAN, session.get(I18nInterceptor.DEFAULT_SESSION_ATTRIBUTE));
+    }
+
     public void testDenmarkLocaleRequestOnly() throws Exception {
         params.put(I18nInterceptor.DEFAULT_REQUESTONLY_PARAMETER, "da_DK");
         interceptor.intercept(mai);
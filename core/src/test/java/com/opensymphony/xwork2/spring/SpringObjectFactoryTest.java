@@ -268,6 +268,39 @@ public class SpringObjectFactoryTest extends XWorkTestCase {
         assertNull("Not expecting this to have been set", bean.getAction());
     }
 
+    public void testClassNamesAreNotLookedUpAsBeans() throws Exception {
+        final int[] lookups = new int[1];
+        StaticApplicationContext context = new StaticApplicationContext() {
+            @Override
+            public Object getBean(String name) throws BeansException {
+                lookups[0]++;
+                return super.getBean(name);
+            }
+        };
+        context.registerSingleton("actionBean", SimpleAction.class, new MutablePropertyValues());
+        objectFactory.setApplicationContext(context);
+
+        assertTrue(objectFactory.buildBean(SimpleAction.class.getName(), null) instanceof SimpleAction);
+        assertEquals(0, lookups[0]);
+        assertTrue(objectFactory.buildBean("actionBean", null) instanceof SimpleAction);
+        assertEquals(1, lookups[0]);
+    }
+
+    public void testNoArgClassesSkipConstructorAutowiring() throws Exception {
+        assertEquals(SpringObjectFactory.ConstructorPlan.NO_ARG, objectFactory.getConstructorPlan(SimpleAction.class));
+        assertEquals(SpringObjectFactory.ConstructorPlan.AUTOWIRE, objectFactory.getConstructorPlan(ConstructorBean.class));
+        assertTrue(objectFactory.buildBean(SimpleAction.class, null) instanceof SimpleAction);
+    }
+
+    public void testConstructorPlansAreClearedWithApplicationContext() throws Exception {
+        objectFactory.getConstructorPlan(SimpleAction.class);
+        objectFactory.getConstructorPlan(ConstructorBean.class);
+        assertEquals(2, objectFactory.getConstructorPlanCount());
+
+        objectFactory.setApplicationContext(new StaticApplicationContext());
+        assertEquals(0, objectFactory.getConstructorPlanCount());
+    }
+
     public void testObjectFactoryUsesSpringObjectFactoryToCreateActions() throws Exception {
         sac.registerSingleton("actionBean", SimpleAction.class, new MutablePropertyValues());
         ActionConfig actionConfig = new ActionConfig.Builder("as", "as", ConstructorAction.class.getName()).build();
@@ -10,9 +10,17 @@ import com.opensymphony.xwork2.config.providers.XmlConfigurationProvider;
 import com.opensymphony.xwork2.test.ModelDrivenAction2;
 import com.opensymphony.xwork2.test.TestBean2;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
 import java.util.ResourceBundle;
 
 
@@ -132,6 +140,91 @@ public class LocalizedTextUtilTest extends XWorkTestCase {
         assertEquals("Testing resource bundle override", message);
     }
 
+    public void testFlattenedBundles() throws Exception {
+        LocalizedTextUtil.setFlattenBundles(true);
+        LocalizedTextUtil.reset();
+        try {
+            ResourceBundle bundle = LocalizedTextUtil.findResourceBundle("com/opensymphony/xwork2/test", Locale.US);
+            assertTrue(bundle instanceof LocalizedTextUtil.FlattenedResourceBundle);
+            assertEquals("Testing resource bundle override", bundle.getString(XWorkMessages.ACTION_EXECUTION_ERROR));
+
+            assertEquals("It works!", LocalizedTextUtil.findText(ModelDrivenAction2.class, "package.properties", Locale.US));
+            assertEquals("Error during Action invocation", LocalizedTextUtil.findDefaultText(XWorkMessages.ACTION_EXECUTION_ERROR, Locale.US));
+            assertNull(LocalizedTextUtil.findDefaultText("foo.range", Locale.US));
+
+            LocalizedTextUtil.addDefaultResourceBundle("com/opensymphony/xwork2/test");
+            LocalizedTextUtil.addDefaultResourceBundle("com/opensymphony/xwork2/SimpleAction");
+            assertEquals("Testing resource bundle override", LocalizedTextUtil.findDefaultText(XWorkMessages.ACTION_EXECUTION_ERROR, Locale.US));
+            assertEquals("Foo Range Message", LocalizedTextUtil.findDefaultText("foo.range", Locale.US));
+        } finally {
+            LocalizedTextUtil.setFlattenBundles(false);
+            LocalizedTextUtil.reset();
+        }
+    }
+
+    public void testFlattenedBundlesShareKeys() throws Exception {
+        LocalizedTextUtil.setFlattenBundles(true);
+        LocalizedTextUtil.reset();
+        try {
+            ResourceBundle german = LocalizedTextUtil.findResourceBundle("com/opensymphony/xwork2/SimpleAction", Locale.GERMAN);
+            ResourceBundle english = LocalizedTextUtil.findResourceBundle("com/opensymphony/xwork2/SimpleAction", Locale.ENGLISH);
+            assertSame(((LocalizedTextUtil.FlattenedResourceBundle) german).getSharedKeys(),
+                    ((LocalizedTextUtil.FlattenedResourceBundle) english).getSharedKeys());
+            assertEquals(ResourceBundle.getBundle("com/opensymphony/xwork2/SimpleAction", Locale.GERMAN).getString("foo.range"),
+                    german.getString("foo.range"));
+            assertEquals("Foo Range Message", english.getString("foo.range"));
+
+            LocalizedTextUtil.findResourceBundle("com/opensymphony/xwork2/NoSuchBundle", Locale.GERMAN);
+
+            Map<String, Long> statistics = LocalizedTextUtil.getBundleStatistics();
+            assertEquals(Long.valueOf(2), statistics.get("flattenedBundles"));
+            assertEquals(Long.valueOf(1), statistics.get("missingBundles"));
+            assertTrue(statistics.get("sharedKeys") < statistics.get("keyReferences"));
+            assertTrue(statistics.get("estimatedBytesSaved") > 0);
+        } finally {
+            LocalizedTextUtil.setFlattenBundles(false);
+            LocalizedTextUtil.reset();
+        }
+    }
+
+    public void testReloadChangedBundle() throws Exception {
+        File dir = new File(System.getProperty("java.io.tmpdir"), "xwork-reload-" + System.currentTimeMillis());
+        assertTrue(dir.mkdirs());
+        File file = new File(dir, "reloadable.properties");
+        writeProperty(file, "greeting", "hello");
+
+        ClassLoader original = Thread.currentThread().getContextClassLoader();
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{dir.toURI().toURL()}, original));
+        LocalizedTextUtil.setReloadBundles(true);
+        LocalizedTextUtil.setReloadCheckInterval(0);
+        try {
+            LocalizedTextUtil.addDefaultResourceBundle("reloadable");
+            assertEquals("hello", LocalizedTextUtil.findDefaultText("greeting", Locale.US));
+
+            writeProperty(file, "greeting", "bonjour");
+            assertTrue(file.setLastModified(file.lastModified() + 10000));
+            assertEquals("bonjour", LocalizedTextUtil.findDefaultText("greeting", Locale.US));
+        } finally {
+            LocalizedTextUtil.setReloadBundles(false);
+            LocalizedTextUtil.setReloadCheckInterval(1000);
+            Thread.currentThread().setContextClassLoader(original);
+            LocalizedTextUtil.reset();
+            file.delete();
+            dir.delete();
+        }
+    }
+
+    private void writeProperty(File file, String key, String value) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(key, value);
+        FileOutputStream out = new FileOutputStream(file);
+        try {
+            properties.store(out, null);
+        } finally {
+            out.close();
+        }
+    }
+
     public void testFindTextInChildProperty() throws Exception {
         ModelDriven action = new ModelDrivenAction2();
         TestBean2 bean = (TestBean2) action.getModel();
@@ -170,6 +263,71 @@ public class LocalizedTextUtilTest extends XWorkTestCase {
         assertEquals("It works!", message);
     }
 
+    public void testFindTextWithIndexedKey() throws Exception {
+        assertEquals("Item name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "items[0].name", Locale.US));
+        assertEquals("Item name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "items[12].name", Locale.US));
+        assertEquals("Item name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "items[*].name", Locale.US));
+        assertEquals("others[0].name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "others[0].name", Locale.US));
+    }
+
+    public void testIndexedKeysAreFoundByTheirExactKey() throws Exception {
+        assertEquals("Item name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "items[0].name", Locale.US));
+        assertEquals("others[0].name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "others[0].name", Locale.US));
+
+        assertEquals("Third other name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "others[3].name", Locale.US));
+        assertEquals("Item name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "items[1].name", Locale.US));
+        assertEquals("others[1].name", LocalizedTextUtil.findText(ModelDrivenAction2.class, "others[1].name", Locale.US));
+        assertTrue(LocalizedTextUtil.getMessageLocationCount() > 0);
+
+        LocalizedTextUtil.clearDefaultResourceBundles();
+        assertEquals(0, LocalizedTextUtil.getMessageLocationCount());
+    }
+
+    public void testFindTexts() throws Exception {
+        LocalizedTexts texts = LocalizedTextUtil.findTexts(ModelDrivenAction2.class,
+                Arrays.asList("package.properties", "items[3].name", XWorkMessages.ACTION_EXECUTION_ERROR, "no.such.key"), Locale.US);
+
+        assertEquals(3, texts.size());
+        assertEquals("It works!", texts.get("package.properties"));
+        assertEquals("Item name", texts.get("items[3].name"));
+        assertEquals("Error during Action invocation", texts.get(XWorkMessages.ACTION_EXECUTION_ERROR));
+        assertFalse(texts.containsKey("no.such.key"));
+        assertEquals(Locale.US, texts.getLocale());
+        try {
+            texts.put("no.such.key", "value");
+            fail("texts should be immutable");
+        } catch (UnsupportedOperationException e) {
+            // expected
+        }
+
+        LocalizedTexts again = LocalizedTextUtil.findTexts(ModelDrivenAction2.class,
+                Arrays.asList("package.properties", "items[3].name", XWorkMessages.ACTION_EXECUTION_ERROR), Locale.US);
+        assertEquals(texts, again);
+        assertEquals(texts.getVersion(), again.getVersion());
+    }
+
+    public void testFindTextsWithPrefix() throws Exception {
+        LocalizedTexts texts = LocalizedTextUtil.findTexts(ModelDrivenAction2.class, "items", Locale.US);
+        assertEquals(1, texts.size());
+        assertEquals("Item name", texts.get("items[*].name"));
+
+        LocalizedTexts all = LocalizedTextUtil.findTexts(ModelDrivenAction2.class, "", Locale.US);
+        assertEquals("It works!", all.get("package.properties"));
+        assertEquals("Error during Action invocation", all.get(XWorkMessages.ACTION_EXECUTION_ERROR));
+        assertFalse(texts.getVersion().equals(all.getVersion()));
+    }
+
+    public void testFindTextIsRepeatable() throws Exception {
+        // the second lookups are served from the resolved-location cache, including the miss
+        for (int i = 0; i < 2; i++) {
+            assertEquals("It works!", LocalizedTextUtil.findText(ModelDrivenAction2.class, "package.properties", Locale.getDefault()));
+            assertEquals("Foo Bar!", LocalizedTextUtil.findText(ModelDrivenAction2.class, "no.such.key", Locale.getDefault(), "Foo Bar!", null));
+        }
+
+        LocalizedTextUtil.clearBundle("com.opensymphony.xwork2.test.package");
+        assertEquals("It works!", LocalizedTextUtil.findText(ModelDrivenAction2.class, "package.properties", Locale.getDefault()));
+    }
+
     public void testParameterizedDefaultMessage() throws Exception {
         String message = LocalizedTextUtil.findDefaultText(XWorkMessages.MISSING_ACTION_EXCEPTION, Locale.getDefault(), new String[]{"AddUser"});
         assertEquals("There is no Action mapped for action name AddUser.", message);
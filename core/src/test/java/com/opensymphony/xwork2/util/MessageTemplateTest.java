@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2002-2007 by OpenSymphony
+ * All rights reserved.
+ */
+package com.opensymphony.xwork2.util;
+
+import junit.framework.TestCase;
+
+import java.text.MessageFormat;
+import java.util.Date;
+import java.util.Locale;
+
+/**
+ * Unit test for {@link MessageTemplate}.
+ */
+public class MessageTemplateTest extends TestCase {
+
+    private static final Object[] ARGS = new Object[]{"text", 1234.5, new Date(0), null, Boolean.TRUE};
+
+    public void testFormatsLikeMessageFormat() {
+        String[] patterns = new String[]{
+                "",
+                "plain text",
+                "{0}",
+                "Hello {0}, you owe {1}",
+                "{2} and {3} and {4}",
+                "missing {7} argument",
+                "{1,number,#.0} formatted",
+                "it''s {0}",
+                "'{0}' is quoted",
+                "{00}"
+        };
+        Locale[] locales = new Locale[]{Locale.US, Locale.GERMANY};
+
+        for (String pattern : patterns) {
+            for (Locale locale : locales) {
+                MessageFormat format = new MessageFormat(pattern, locale);
+                MessageTemplate template = MessageTemplate.compile(pattern, locale);
+
+                assertEquals(pattern, format.format(ARGS), template.format(ARGS));
+                assertEquals(pattern, format.format(null), template.format(null));
+                assertEquals(pattern, format.format(new Object[0]), template.format(new Object[0]));
+            }
+        }
+    }
+
+    public void testInvalidPattern() {
+        try {
+            MessageTemplate.compile("unclosed {0", Locale.US);
+            fail("expected an IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+}
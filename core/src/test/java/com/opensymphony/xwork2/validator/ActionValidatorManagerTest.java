@@ -1,5 +1,6 @@
 package com.opensymphony.xwork2.validator;
 
+import com.opensymphony.xwork2.ActionContext;
 import com.opensymphony.xwork2.ActionSupport;
 import com.opensymphony.xwork2.XWorkTestCase;
 import com.opensymphony.xwork2.util.ValueStack;
@@ -10,7 +11,11 @@ import com.opensymphony.xwork2.validator.validators.VisitorFieldValidator;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * A test case for ActionValidatorManager.
@@ -170,6 +175,159 @@ public class ActionValidatorManagerTest extends XWorkTestCase {
         assertEquals((action.getFieldErrors().get("customer.address.pobox")).size(), 2);
     }
 
+    public void testValidateAll() throws Exception {
+        ValueStack stack = container.getInstance(ValueStackFactory.class).createValueStack();
+        final RequiredStringValidator nameRequiredStringValidator = new RequiredStringValidator();
+        nameRequiredStringValidator.setFieldName("name");
+        nameRequiredStringValidator.setDefaultMessage("Name is required");
+        nameRequiredStringValidator.setValueStack(stack);
+
+        final RequiredFieldValidator ageRequiredValidator = new RequiredFieldValidator();
+        ageRequiredValidator.setFieldName("age");
+        ageRequiredValidator.setDefaultMessage("Age is required");
+        ageRequiredValidator.setValueStack(stack);
+
+        final List<Class> lookups = new ArrayList<Class>();
+        DefaultActionValidatorManager validatorManager = new DefaultActionValidatorManager() {
+            @Override
+            public List<Validator> getValidators(Class clazz, String context, String method) {
+                lookups.add(clazz);
+                List<Validator> validators = new ArrayList<Validator>();
+                validators.add(nameRequiredStringValidator);
+                validators.add(ageRequiredValidator);
+                return validators;
+            }
+        };
+
+        Customer valid = new Customer();
+        valid.setName("Bob");
+        valid.setAge(42);
+        Customer noName = new Customer();
+        noName.setAge(42);
+        Customer empty = new Customer();
+
+        List<Customer> customers = new ArrayList<Customer>();
+        customers.add(valid);
+        customers.add(noName);
+        customers.add(null);
+        customers.add(empty);
+
+        stack.push(new ActionSupport());
+        List<ValidatorContext> results = validatorManager.validateAll(customers, "ctx");
+
+        assertEquals(1, lookups.size());
+        assertEquals(4, results.size());
+        assertFalse(results.get(0).hasErrors());
+        assertTrue(results.get(1).hasFieldErrors());
+        assertEquals(1, results.get(1).getFieldErrors().size());
+        assertTrue(results.get(1).getFieldErrors().containsKey("name"));
+        assertNull(results.get(2));
+        assertEquals(2, results.get(3).getFieldErrors().size());
+        assertFalse(results.get(3).hasActionErrors());
+    }
+
+    public void testParallelValidationMatchesSerialValidation() throws Exception {
+        ValueStack stack = ActionContext.getContext().getValueStack();
+        final List<Validator> validators = new ArrayList<Validator>();
+        validators.add(createRequiredStringValidator("referenceNumber", "Reference number is required", false, stack));
+        validators.add(createRequiredStringValidator("customer.name", "Name is required", true, stack));
+        validators.add(createRequiredStringValidator("referenceNumber", "Reference number is still required", false, stack));
+        validators.add(createRequiredStringValidator("customer.name", "Name is still required", false, stack));
+        validators.add(createRequiredStringValidator("customer.address.street", "Street is required", false, stack));
+
+        DefaultActionValidatorManager validatorManager = new DefaultActionValidatorManager() {
+            @Override
+            public List<Validator> getValidators(Class clazz, String context, String method) {
+                return validators;
+            }
+        };
+        validatorManager.setValueStackFactory(container.getInstance(ValueStackFactory.class));
+        validatorManager.setParallelMinValidators("2");
+
+        MockAction serialAction = new MockAction();
+        stack.push(serialAction);
+        validatorManager.validate(serialAction, "ctx");
+        stack.pop();
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            validatorManager.setExecutor(executor);
+            MockAction parallelAction = new MockAction();
+            stack.push(parallelAction);
+            validatorManager.validate(parallelAction, "ctx");
+            stack.pop();
+
+            assertEquals(3, serialAction.getFieldErrors().size());
+            assertEquals(2, serialAction.getFieldErrors().get("referenceNumber").size());
+            assertEquals(1, serialAction.getFieldErrors().get("customer.name").size());
+            assertEquals(new ArrayList<String>(serialAction.getFieldErrors().keySet()), new ArrayList<String>(parallelAction.getFieldErrors().keySet()));
+            assertEquals(serialAction.getFieldErrors(), parallelAction.getFieldErrors());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    public void testParallelValidationLooksUpTextsOnCallingThread() throws Exception {
+        ValueStack stack = ActionContext.getContext().getValueStack();
+        final List<Validator> validators = new ArrayList<Validator>();
+        validators.add(createRequiredStringValidator("referenceNumber", "Reference number is required", false, stack));
+        validators.add(createRequiredStringValidator("customer.name", "Name is required", false, stack));
+        validators.add(createRequiredStringValidator("customer.address.street", "Street is required", false, stack));
+        for (Validator validator : validators) {
+            validator.setMessageKey("missing.key");
+        }
+
+        DefaultActionValidatorManager validatorManager = new DefaultActionValidatorManager() {
+            @Override
+            public List<Validator> getValidators(Class clazz, String context, String method) {
+                return validators;
+            }
+        };
+        validatorManager.setValueStackFactory(container.getInstance(ValueStackFactory.class));
+        validatorManager.setParallelMinValidators("2");
+        validatorManager.setParallelThreads("3");
+
+        final Set<Thread> lookupThreads = new HashSet<Thread>();
+        MockAction action = new MockAction();
+        ValidatorContext validatorContext = new DelegatingValidatorContext(action) {
+            @Override
+            public String getText(String key, String defaultValue, List<Object> args) {
+                lookupThreads.add(Thread.currentThread());
+                return super.getText(key, defaultValue, args);
+            }
+        };
+
+        stack.push(action);
+        try {
+            validatorManager.validate(action, "ctx", validatorContext);
+        } finally {
+            stack.pop();
+            validatorManager.setExecutor(null);
+        }
+
+        assertEquals(3, action.getFieldErrors().size());
+        assertEquals(Collections.singleton(Thread.currentThread()), lookupThreads);
+    }
+
+    public void testReplacedExecutorIsShutDown() throws Exception {
+        DefaultActionValidatorManager validatorManager = new DefaultActionValidatorManager();
+        ExecutorService executor = Executors.newFixedThreadPool(1);
+
+        validatorManager.setExecutor(executor);
+        validatorManager.setParallelThreads("not a number");
+
+        assertTrue(executor.isShutdown());
+    }
+
+    private RequiredStringValidator createRequiredStringValidator(String fieldName, String message, boolean shortCircuit, ValueStack stack) {
+        RequiredStringValidator validator = new RequiredStringValidator();
+        validator.setFieldName(fieldName);
+        validator.setDefaultMessage(message);
+        validator.setShortCircuit(shortCircuit);
+        validator.setValueStack(stack);
+        return validator;
+    }
+
     private class MockAction extends ActionSupport {
 
         private String referenceNumber;
@@ -86,6 +86,14 @@ public class AnnotationActionValidatorManagerTest extends XWorkTestCase {
         assertEquals(12, validatorList.size());
     }
     
+    public void testAnnotationConfigsAreScannedOncePerClass() {
+        List<ValidatorConfig> first = annotationActionValidatorManager.buildAnnotationClassValidatorConfigs(SimpleAnnotationAction.class);
+        List<ValidatorConfig> second = annotationActionValidatorManager.buildAnnotationClassValidatorConfigs(SimpleAnnotationAction.class);
+
+        assertFalse(first.isEmpty());
+        assertSame(first, second);
+    }
+
     public void testDefaultMessageInterpolation() {
         // get validators
         List validatorList = annotationActionValidatorManager.getValidators(AnnotatedTestBean.class, "beanMessageBundle");
@@ -120,6 +120,19 @@ public class RegexFieldValidatorTest extends XWorkTestCase {
         assertEquals(false, validator.isTrimed());
     }
 
+    public void testPatternIsShared() throws Exception {
+        RegexFieldValidator first = new RegexFieldValidator();
+        first.setExpression("^Sec.*");
+        RegexFieldValidator second = new RegexFieldValidator();
+        second.setExpression("^Sec.*");
+        assertSame(first.getPattern(), second.getPattern());
+
+        second.setCaseSensitive(false);
+        assertNotSame(first.getPattern(), second.getPattern());
+        assertTrue(second.getPattern().matcher("secret").matches());
+        assertFalse(first.getPattern().matcher("secret").matches());
+    }
+
     public void testEmptyName() throws Exception {
         MyTestPerson testPerson = new MyTestPerson();
         testPerson.setUsername("");
@@ -7,6 +7,7 @@ package com.opensymphony.xwork2.validator;
 import com.opensymphony.xwork2.*;
 import com.opensymphony.xwork2.config.entities.ActionConfig;
 import com.opensymphony.xwork2.interceptor.DefaultWorkflowInterceptor;
+import com.opensymphony.xwork2.validator.validators.VisitorFieldValidator;
 
 import java.util.*;
 
@@ -124,6 +125,46 @@ public class VisitorFieldValidatorTest extends XWorkTestCase {
         assertEquals(1, errors.size());
     }
 
+    public void testCollectionValidationWithoutBatchManager() throws Exception {
+        final List<Object> validated = new ArrayList<Object>();
+        final ActionValidatorManager delegate = container.getInstance(ActionValidatorManager.class);
+        VisitorFieldValidator validator = new VisitorFieldValidator();
+        validator.setActionValidatorManager(new ActionValidatorManager() {
+            public List<Validator> getValidators(Class clazz, String context, String method) {
+                return delegate.getValidators(clazz, context, method);
+            }
+
+            public List<Validator> getValidators(Class clazz, String context) {
+                return delegate.getValidators(clazz, context);
+            }
+
+            public void validate(Object object, String context) throws ValidationException {
+                delegate.validate(object, context);
+            }
+
+            public void validate(Object object, String context, ValidatorContext validatorContext) throws ValidationException {
+                validated.add(object);
+                delegate.validate(object, context, validatorContext);
+            }
+
+            public void validate(Object object, String context, String method) throws ValidationException {
+                delegate.validate(object, context, method);
+            }
+
+            public void validate(Object object, String context, ValidatorContext validatorContext, String method) throws ValidationException {
+                delegate.validate(object, context, validatorContext, method);
+            }
+        });
+        validator.setFieldName("testBeanList");
+        validator.setValueStack(ActionContext.getContext().getValueStack());
+        validator.setValidatorContext(new DelegatingValidatorContext(action));
+
+        validator.validate(action);
+
+        assertEquals(action.getTestBeanList(), validated);
+        assertTrue(action.getFieldErrors().containsKey("testBeanList[1].name"));
+    }
+
     public void testContextIsOverriddenByContextParamInValidationXML() throws Exception {
         validate("visitorValidationAlias");
         assertTrue(action.hasFieldErrors());